@@ -0,0 +1,93 @@
+package org.example.snake;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.snake.ui.UiAtlas;
+
+/**
+ * Everything the client loads through its {@link AssetManager}. {@link #BOOT} is needed by every
+ * screen and is loaded, with the menu's own assets, before the first frame; screens list anything
+ * else they need and {@link MainGame#open} loads it, behind the loading screen, before showing them.
+ */
+public final class Assets {
+    public static final AssetDescriptor<BitmapFont> FONT =
+            new AssetDescriptor<>("fonts/NotoEmoji-Regular.ttf", BitmapFont.class, fontParameters());
+    public static final AssetDescriptor<UiAtlas> UI_ATLAS = new AssetDescriptor<>("ui-atlas", UiAtlas.class);
+    public static final AssetDescriptor<Texture> MENU_BACKGROUND =
+            new AssetDescriptor<>("menu_snake.png", Texture.class, linear());
+
+    public static final List<AssetDescriptor<?>> BOOT = List.of(FONT, UI_ATLAS);
+
+    private Assets() {}
+
+    /**
+     * Only the loaders for the types above: the default set pulls in the model, particle and audio
+     * loaders, and loading their classes was a noticeable slice of startup.
+     */
+    static AssetManager createManager() {
+        FileHandleResolver resolver = new InternalFileHandleResolver();
+        AssetManager manager = new Manager(resolver);
+        manager.setLoader(Texture.class, new TextureLoader(resolver));
+        manager.setLoader(BitmapFont.class, ".ttf", new FontCache.Loader(resolver));
+        manager.setLoader(UiAtlas.class, new UiAtlas.Loader(resolver));
+        return manager;
+    }
+
+    /**
+     * Loads {@code d} on the calling thread and registers it with {@code manager}, which must come
+     * from {@link #createManager}. Going through the manager's worker instead leaves the render
+     * thread spinning in {@code finishLoadingAsset}, competing with the worker for the CPU.
+     */
+    static void loadNow(AssetManager manager, AssetDescriptor<?> d) {
+        ((Manager) manager).loadNow(d);
+    }
+
+    private static final class Manager extends AssetManager {
+        Manager(FileHandleResolver resolver) {
+            super(resolver, false);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        <T> void loadNow(AssetDescriptor<T> d) {
+            AsynchronousAssetLoader loader = (AsynchronousAssetLoader) getLoader(d.type, d.fileName);
+            FileHandle file = loader.resolve(d.fileName);
+            loader.loadAsync(this, d.fileName, file, d.params);
+            addAsset(d.fileName, d.type, (T) loader.loadSync(this, d.fileName, file, d.params));
+        }
+    }
+
+    /** Drops descriptors whose file is not shipped, so optional images do not fail the load. */
+    public static List<AssetDescriptor<?>> ifPresent(AssetDescriptor<?>... descriptors) {
+        List<AssetDescriptor<?>> present = new ArrayList<>();
+        for (AssetDescriptor<?> d : descriptors) {
+            if (Gdx.files.internal(d.fileName).exists()) present.add(d);
+        }
+        return present;
+    }
+
+    private static FontCache.Loader.Parameters fontParameters() {
+        FontCache.Loader.Parameters p = new FontCache.Loader.Parameters();
+        p.size = 28;
+        p.characters = FreeTypeFontGenerator.DEFAULT_CHARS + "▶★⚙️❌🔙🗑️✅🏠🔁";
+        return p;
+    }
+
+    private static TextureLoader.TextureParameter linear() {
+        TextureLoader.TextureParameter p = new TextureLoader.TextureParameter();
+        p.minFilter = Texture.TextureFilter.Linear;
+        p.magFilter = Texture.TextureFilter.Linear;
+        return p;
+    }
+}
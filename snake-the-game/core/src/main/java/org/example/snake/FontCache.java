@@ -0,0 +1,310 @@
+package org.example.snake;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.utils.Array;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * FreeType fonts baked once and kept under {@code ~/.snake-the-game/cache/fonts}. An entry is
+ * keyed by a checksum of the font file together with the size and character set, so editing
+ * any of them simply misses the cache. On a hit the glyph pages are read back as LibGDX CIM
+ * dumps, which inflate about twice as fast as PNGs, and the metrics from a small binary file,
+ * which skips FreeType entirely. On a miss the font is
+ * generated as before and the entry is written by a background thread.
+ *
+ * <p>Fonts are loaded through {@link Loader}: hashing, decoding and FreeType rasterising happen
+ * on the {@link AssetManager} worker thread and only the texture upload runs on the render thread.
+ */
+public final class FontCache {
+    /** Bump when the entry layout changes. */
+    private static final int FORMAT = 3;
+    private static final String DIR = ".snake-the-game/cache/fonts/";
+    /** Fits the menu font at size 28 with room to spare; every page is read, inflated and uploaded. */
+    private static final int PAGE_SIZE = 512;
+
+    private FontCache() {}
+
+    /** LibGDX's built-in font, scaled up; used when the TTF is missing or FreeType is unavailable. */
+    public static BitmapFont fallback() {
+        BitmapFont f = new BitmapFont();
+        f.getData().setScale(1.8f);
+        for (TextureRegion r : f.getRegions()) {
+            if (r != null && r.getTexture() != null) {
+                r.getTexture().setFilter(TextureFilter.Linear, TextureFilter.Linear);
+            }
+        }
+        return f;
+    }
+
+    /** Font data and glyph pages ready for upload; {@code generated} entries still need writing. */
+    private static final class Prepared {
+        final String key;
+        final BitmapFont.BitmapFontData data;
+        final List<Pixmap> pages;
+        final boolean generated;
+
+        Prepared(String key, BitmapFont.BitmapFontData data, List<Pixmap> pages, boolean generated) {
+            this.key = key;
+            this.data = data;
+            this.pages = pages;
+            this.generated = generated;
+        }
+
+        /** Render thread only. */
+        BitmapFont create() {
+            Array<TextureRegion> regions = new Array<>();
+            for (Pixmap page : pages) {
+                Texture t = new Texture(page);
+                t.setFilter(TextureFilter.Linear, TextureFilter.Linear);
+                regions.add(new TextureRegion(t));
+            }
+            BitmapFont font = new BitmapFont(data, regions, true);
+            font.setOwnsTexture(true);
+            if (generated) {
+                writeBehind(key, data, pages);
+            } else {
+                pages.forEach(Pixmap::dispose);
+            }
+            return font;
+        }
+    }
+
+    private static Prepared prepare(FileHandle ttf, int size, String characters) {
+        String key = key(ttf, size, characters);
+        Prepared cached = read(key);
+        return cached != null ? cached : generate(ttf, size, characters, key);
+    }
+
+    /**
+     * CRC32 rather than a cryptographic digest: the key only has to notice an edited font. Setting
+     * up a {@code MessageDigest} provider cost more than the rest of a cache hit, and CRC32C runs
+     * as plain bytecode until the JIT gets to it, which at startup it has not.
+     */
+    private static String key(FileHandle ttf, int size, String characters) {
+        byte[] font = ttf.readBytes();
+        CRC32 crc = new CRC32();
+        crc.update(font);
+        crc.update((FORMAT + "|" + size + "|" + characters).getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(font.length);
+    }
+
+    private static Prepared read(String key) {
+        FileHandle meta = Gdx.files.external(DIR + key + ".font");
+        if (!meta.exists()) return null;
+        List<Pixmap> pages = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(meta.read(8192))) {
+            BitmapFont.BitmapFontData data = new BitmapFont.BitmapFontData();
+            data.padTop = in.readFloat();
+            data.padRight = in.readFloat();
+            data.padBottom = in.readFloat();
+            data.padLeft = in.readFloat();
+            data.lineHeight = in.readFloat();
+            data.capHeight = in.readFloat();
+            data.ascent = in.readFloat();
+            data.descent = in.readFloat();
+            data.down = in.readFloat();
+            data.spaceXadvance = in.readFloat();
+            data.xHeight = in.readFloat();
+            int missing = in.readInt();
+            int glyphs = in.readInt();
+            for (int i = 0; i < glyphs; i++) {
+                BitmapFont.Glyph g = new BitmapFont.Glyph();
+                g.id = in.readInt();
+                g.srcX = in.readShort();
+                g.srcY = in.readShort();
+                g.width = in.readShort();
+                g.height = in.readShort();
+                g.xoffset = in.readShort();
+                g.yoffset = in.readShort();
+                g.xadvance = in.readShort();
+                g.page = in.readByte();
+                int kernings = in.readShort();
+                for (int k = 0; k < kernings; k++) {
+                    g.setKerning(in.readChar(), in.readByte());
+                }
+                data.setGlyph(g.id, g);
+            }
+            if (missing >= 0) {
+                data.missingGlyph = data.getGlyph((char) missing);
+            }
+            int count = in.readByte();
+            for (int i = 0; i < count; i++) {
+                pages.add(PixmapIO.readCIM(Gdx.files.external(DIR + key + "-" + i + ".cim")));
+            }
+            return new Prepared(key, data, pages, false);
+        } catch (Exception ex) {
+            pages.forEach(Pixmap::dispose);
+            log("Ignoring unreadable font cache " + key, ex);
+            return null;
+        }
+    }
+
+    /** Rasterises into our own packer; nothing here touches GL, so it is safe off the render thread. */
+    private static Prepared generate(FileHandle ttf, int size, String characters, String key) {
+        PixmapPacker packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, 1, false);
+        FreeTypeFontGenerator gen = new FreeTypeFontGenerator(ttf);
+        try {
+            FreeTypeFontGenerator.FreeTypeFontParameter p = new FreeTypeFontGenerator.FreeTypeFontParameter();
+            p.size = size;
+            p.minFilter = TextureFilter.Linear;
+            p.magFilter = TextureFilter.Linear;
+            p.characters = characters;
+            p.packer = packer;
+            BitmapFont.BitmapFontData data = gen.generateData(p);
+            // The pages are handed over as they are; the packer itself holds nothing else.
+            List<Pixmap> pages = new ArrayList<>();
+            for (PixmapPacker.Page page : packer.getPages()) {
+                pages.add(page.getPixmap());
+            }
+            return new Prepared(key, data, pages, true);
+        } finally {
+            gen.dispose();
+        }
+    }
+
+    /** Writes the entry on a background thread and frees the pages; the metrics file goes last. */
+    private static void writeBehind(String key, BitmapFont.BitmapFontData data, List<Pixmap> pages) {
+        Thread writer = new Thread(() -> {
+            try {
+                byte[] meta = encode(data, pages.size());
+                FileHandle dir = Gdx.files.external(DIR);
+                for (FileHandle old : dir.list()) {
+                    if (!old.name().startsWith(key)) old.delete();
+                }
+                for (int i = 0; i < pages.size(); i++) {
+                    PixmapIO.writeCIM(Gdx.files.external(DIR + key + "-" + i + ".cim"), pages.get(i));
+                }
+                FileHandle tmp = Gdx.files.external(DIR + key + ".font.tmp");
+                tmp.writeBytes(meta, false);
+                tmp.moveTo(Gdx.files.external(DIR + key + ".font"));
+            } catch (Exception ex) {
+                log("Could not write font cache", ex);
+            } finally {
+                pages.forEach(Pixmap::dispose);
+            }
+        }, "font-cache-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private static byte[] encode(BitmapFont.BitmapFontData data, int pages) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * 1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeFloat(data.padTop);
+        out.writeFloat(data.padRight);
+        out.writeFloat(data.padBottom);
+        out.writeFloat(data.padLeft);
+        out.writeFloat(data.lineHeight);
+        out.writeFloat(data.capHeight);
+        out.writeFloat(data.ascent);
+        out.writeFloat(data.descent);
+        out.writeFloat(data.down);
+        out.writeFloat(data.spaceXadvance);
+        out.writeFloat(data.xHeight);
+        out.writeInt(data.missingGlyph == null ? -1 : data.missingGlyph.id);
+        List<BitmapFont.Glyph> glyphs = new ArrayList<>();
+        for (BitmapFont.Glyph[] page : data.glyphs) {
+            if (page == null) continue;
+            for (BitmapFont.Glyph g : page) {
+                if (g != null) glyphs.add(g);
+            }
+        }
+        out.writeInt(glyphs.size());
+        for (BitmapFont.Glyph g : glyphs) {
+            out.writeInt(g.id);
+            out.writeShort(g.srcX);
+            out.writeShort(g.srcY);
+            out.writeShort(g.width);
+            out.writeShort(g.height);
+            out.writeShort(g.xoffset);
+            out.writeShort(g.yoffset);
+            out.writeShort(g.xadvance);
+            out.writeByte(g.page);
+            List<int[]> kernings = new ArrayList<>();
+            if (g.kerning != null) {
+                for (int hi = 0; hi < g.kerning.length; hi++) {
+                    if (g.kerning[hi] == null) continue;
+                    for (int lo = 0; lo < g.kerning[hi].length; lo++) {
+                        if (g.kerning[hi][lo] != 0) kernings.add(new int[]{hi * g.kerning[hi].length + lo, g.kerning[hi][lo]});
+                    }
+                }
+            }
+            out.writeShort(kernings.size());
+            for (int[] k : kernings) {
+                out.writeChar(k[0]);
+                out.writeByte(k[1]);
+            }
+        }
+        out.writeByte(pages);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void log(String message, Throwable ex) {
+        if (Gdx.app != null) {
+            Gdx.app.error("FontCache", message, ex);
+        }
+    }
+
+    /**
+     * {@link AssetManager} loader for {@code .ttf} files. A missing file or a FreeType failure
+     * yields {@link #fallback()} instead of failing the load.
+     */
+    public static final class Loader extends AsynchronousAssetLoader<BitmapFont, Loader.Parameters> {
+        private Prepared prepared;
+
+        public static final class Parameters extends AssetLoaderParameters<BitmapFont> {
+            public int size = 28;
+            public String characters = FreeTypeFontGenerator.DEFAULT_CHARS;
+        }
+
+        public Loader(FileHandleResolver resolver) {
+            super(resolver);
+        }
+
+        @Override
+        public void loadAsync(AssetManager manager, String fileName, FileHandle file, Parameters parameter) {
+            prepared = null;
+            if (!file.exists()) return;
+            Parameters p = parameter != null ? parameter : new Parameters();
+            try {
+                prepared = prepare(file, p.size, p.characters);
+            } catch (Throwable ex) {
+                log("Falling back to the built-in font", ex);
+            }
+        }
+
+        @Override
+        public BitmapFont loadSync(AssetManager manager, String fileName, FileHandle file, Parameters parameter) {
+            BitmapFont font = prepared != null ? prepared.create() : fallback();
+            prepared = null;
+            return font;
+        }
+
+        @Override
+        public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, Parameters parameter) {
+            return null;
+        }
+    }
+}
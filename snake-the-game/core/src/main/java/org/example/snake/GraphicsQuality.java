@@ -0,0 +1,53 @@
+package org.example.snake;
+
+/**
+ * Rendering detail presets. {@link #AUTO} is only a setting: {@link QualityGovernor} resolves it
+ * to one of the fixed presets from measured frame times, so renderers never see it.
+ */
+public enum GraphicsQuality {
+    LOW("Low", 6, false, false, false),
+    MEDIUM("Medium", 10, true, false, true),
+    HIGH("High", 16, true, true, true),
+    AUTO("Auto", 16, true, true, true);
+
+    public final String title;
+    /** Triangles per circle, disc and joint. */
+    public final int circleSegments;
+    /** Sine wave along the single-player body; off draws the body straight through the cells. */
+    public final boolean bodyWave;
+    /** A disc at every body segment (single player) or every turn (multiplayer), plus eye pupils. */
+    public final boolean segmentJoints;
+    /** Checkerboard background; off leaves the plain clear color. */
+    public final boolean gridDetail;
+
+    GraphicsQuality(String title, int circleSegments, boolean bodyWave, boolean segmentJoints, boolean gridDetail) {
+        this.title = title;
+        this.circleSegments = circleSegments;
+        this.bodyWave = bodyWave;
+        this.segmentJoints = segmentJoints;
+        this.gridDetail = gridDetail;
+    }
+
+    /** One preset lower, stopping at {@link #LOW}. */
+    GraphicsQuality lower() {
+        return this == HIGH ? MEDIUM : LOW;
+    }
+
+    /** One preset higher, stopping at {@link #HIGH}. */
+    GraphicsQuality higher() {
+        return this == LOW ? MEDIUM : HIGH;
+    }
+
+    /** Settings screen order: Low, Medium, High, Auto, then back to Low. */
+    public GraphicsQuality nextSetting() {
+        GraphicsQuality[] all = values();
+        return all[(ordinal() + 1) % all.length];
+    }
+
+    public static GraphicsQuality fromName(String name, GraphicsQuality fallback) {
+        for (GraphicsQuality q : values()) {
+            if (q.name().equalsIgnoreCase(name)) return q;
+        }
+        return fallback;
+    }
+}
@@ -1,27 +1,285 @@
 package org.example.snake;
 
+import com.badlogic.gdx.Gdx;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
-public class HighScores {
-    private static final List<Integer> scores = new ArrayList<>();
+import org.example.snake.game.Level;
+
+/**
+ * Top 10 scores per {@link Level}, kept on disk under {@code ~/.snake-the-game}.
+ *
+ * <p>Only scores that enter a top 10 change anything, and each such change is appended to a
+ * small journal as one line. Once the journal holds {@value #COMPACT_AFTER} entries the current
+ * tables are written to a snapshot (via a temp file and an atomic move) and the journal is
+ * truncated, so loading reads at most a few dozen short lines no matter how long the game has
+ * been played. A torn last line from a crash is skipped on load, and the journal is compacted
+ * straight away so the next entry does not continue it.
+ *
+ * <p>Both files start with a {@code G} line holding a generation number. Compacting writes the
+ * snapshot with the next generation before the journal is replaced, and a journal is only
+ * replayed on top of the snapshot of its own generation; a crash between the two steps
+ * therefore leaves a journal that is ignored instead of counted twice.
+ */
+public final class HighScores {
     private static final int MAX = 10;
+    static final int COMPACT_AFTER = 64;
+    private static final String SNAPSHOT = "highscores.snapshot";
+    private static final String JOURNAL = "highscores.journal";
+
+    private static final Map<Level, Table> tables = new EnumMap<>(Level.class);
+    private static Path dir = Path.of(System.getProperty("user.home"), ".snake-the-game");
+    private static boolean loaded;
+    private static int journalEntries;
+    private static long generation;
+    /** Generation in the journal's header on disk, -1 if it has none we can trust. */
+    private static long journalGeneration = -1;
 
-    public static void submit(int score) {
+    private HighScores() {}
+
+    /** Keeps the scores in {@code directory} from now on; they are read from there on next use. */
+    static synchronized void useDirectory(Path directory) {
+        dir = directory;
+        tables.clear();
+        loaded = false;
+        journalEntries = 0;
+        generation = 0;
+        journalGeneration = -1;
+    }
+
+    public static synchronized void submit(Level level, int score) {
         if (score <= 0) return;
-        scores.add(score);
-        scores.sort(Collections.reverseOrder());
-        if (scores.size() > MAX) {
-            scores.subList(MAX, scores.size()).clear();
+        ensureLoaded();
+        if (table(level).offer(score)) {
+            append("S " + level.name() + " " + score);
+        }
+    }
+
+    /** Scores of the level, best first. The list is immutable and reused until the level changes. */
+    public static synchronized List<Integer> top(Level level) {
+        ensureLoaded();
+        return table(level).view();
+    }
+
+    public static synchronized void clear(Level level) {
+        ensureLoaded();
+        table(level).clear();
+        append("C " + level.name());
+    }
+
+    public static synchronized void clearAll() {
+        ensureLoaded();
+        for (Level level : Level.values()) {
+            table(level).clear();
+        }
+        append("C *");
+    }
+
+    private static Table table(Level level) {
+        return tables.computeIfAbsent(level, l -> new Table());
+    }
+
+    private static void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+        journalEntries = 0;
+        long start = System.nanoTime();
+        boolean torn = false;
+        try {
+            List<String> snapshot = read(dir.resolve(SNAPSHOT)).lines().toList();
+            generation = generation(snapshot);
+            snapshot.forEach(HighScores::apply);
+            String text = read(dir.resolve(JOURNAL));
+            List<String> journal = text.lines().toList();
+            if (!journal.isEmpty() && generation(journal) == generation) {
+                journalGeneration = generation;
+                for (String line : journal) {
+                    if (apply(line)) {
+                        journalEntries++;
+                    }
+                }
+                // The next record would otherwise be appended to the end of the torn line.
+                torn = !text.endsWith("\n");
+            }
+        } catch (IOException ex) {
+            log("Failed to load high scores from " + dir, ex);
+        }
+        if (journalEntries >= COMPACT_AFTER || torn) {
+            compact();
+        }
+        if (Gdx.app != null) {
+            Gdx.app.debug("HighScores", "Loaded in " + (System.nanoTime() - start) / 1000 + " us");
+        }
+    }
+
+    private static String read(Path file) throws IOException {
+        return Files.exists(file) ? Files.readString(file, StandardCharsets.UTF_8) : "";
+    }
+
+    /** The generation in a file's header line; files from before generations count as 0. */
+    private static long generation(List<String> lines) {
+        if (!lines.isEmpty()) {
+            String[] parts = lines.get(0).trim().split(" ");
+            if (parts.length == 2 && parts[0].equals("G")) {
+                try {
+                    return Long.parseLong(parts[1]);
+                } catch (NumberFormatException ignored) {
+                    return -1;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static boolean apply(String line) {
+        String[] parts = line.trim().split(" ");
+        try {
+            if (parts.length == 3 && parts[0].equals("S")) {
+                table(Level.valueOf(parts[1])).offer(Integer.parseInt(parts[2]));
+                return true;
+            }
+            if (parts.length == 2 && parts[0].equals("C")) {
+                if (parts[1].equals("*")) {
+                    tables.values().forEach(Table::clear);
+                } else {
+                    table(Level.valueOf(parts[1])).clear();
+                }
+                return true;
+            }
+        } catch (IllegalArgumentException ignored) {
+            // Unknown level or torn write; skip the line.
         }
+        return false;
     }
 
-    public static List<Integer> top() {
-        return new ArrayList<>(scores);
+    private static void append(String record) {
+        try {
+            Files.createDirectories(dir);
+            if (journalGeneration != generation) {
+                resetJournal();
+            }
+            Files.writeString(dir.resolve(JOURNAL), record + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException ex) {
+            log("Failed to save high score", ex);
+            return;
+        }
+        if (++journalEntries >= COMPACT_AFTER) {
+            compact();
+        }
     }
 
-    public static void clearAll() {
-        scores.clear();
+    private static void compact() {
+        long next = generation + 1;
+        StringBuilder sb = new StringBuilder("G ").append(next).append('\n');
+        for (Map.Entry<Level, Table> e : tables.entrySet()) {
+            for (int score : e.getValue().view()) {
+                sb.append("S ").append(e.getKey().name()).append(' ').append(score).append('\n');
+            }
+        }
+        try {
+            Files.createDirectories(dir);
+            replace(SNAPSHOT, sb);
+            generation = next;
+            journalEntries = 0;
+            resetJournal();
+        } catch (IOException ex) {
+            log("Failed to compact high scores", ex);
+        }
+    }
+
+    /** Replaces the journal with an empty one for the current generation. */
+    private static void resetJournal() throws IOException {
+        journalGeneration = -1;
+        replace(JOURNAL, "G " + generation + "\n");
+        journalGeneration = generation;
+    }
+
+    private static void replace(String name, CharSequence content) throws IOException {
+        Path tmp = dir.resolve(name + ".tmp");
+        Files.writeString(tmp, content, StandardCharsets.UTF_8);
+        Files.move(tmp, dir.resolve(name), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void log(String message, Exception ex) {
+        if (Gdx.app != null) {
+            Gdx.app.error("HighScores", message, ex);
+        }
+    }
+
+    /** Bounded min-heap: the root is the lowest kept score, so a new score costs O(log MAX). */
+    private static final class Table {
+        private final int[] heap = new int[MAX];
+        private int size;
+        private List<Integer> view = List.of();
+        private boolean dirty;
+
+        /** @return true if the score made it into the table */
+        boolean offer(int score) {
+            if (size < MAX) {
+                int i = size++;
+                heap[i] = score;
+                while (i > 0 && heap[(i - 1) / 2] > heap[i]) {
+                    swap(i, (i - 1) / 2);
+                    i = (i - 1) / 2;
+                }
+            } else if (score > heap[0]) {
+                heap[0] = score;
+                siftDown();
+            } else {
+                return false;
+            }
+            dirty = true;
+            return true;
+        }
+
+        void clear() {
+            size = 0;
+            view = List.of();
+            dirty = false;
+        }
+
+        List<Integer> view() {
+            if (dirty) {
+                int[] sorted = Arrays.copyOf(heap, size);
+                Arrays.sort(sorted);
+                List<Integer> list = new ArrayList<>(size);
+                for (int i = size - 1; i >= 0; i--) {
+                    list.add(sorted[i]);
+                }
+                view = List.copyOf(list);
+                dirty = false;
+            }
+            return view;
+        }
+
+        private void siftDown() {
+            int i = 0;
+            while (true) {
+                int l = 2 * i + 1;
+                int r = l + 1;
+                int min = i;
+                if (l < size && heap[l] < heap[min]) min = l;
+                if (r < size && heap[r] < heap[min]) min = r;
+                if (min == i) return;
+                swap(i, min);
+                i = min;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int t = heap[a];
+            heap[a] = heap[b];
+            heap[b] = t;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,39 +1,146 @@
 package org.example.snake;
 
 import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
-import com.badlogic.gdx.graphics.Texture.TextureFilter;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import org.example.snake.game.Level;
 import org.example.snake.game.GameScreen;
 import org.example.snake.multiplayer.MultiplayerGameScreen;
 import org.example.snake.multiplayer.MultiplayerSetupScreen;
 import org.example.snake.ui.MenuScreen;
+import org.example.snake.ui.PerfOverlay;
 import org.example.snake.ui.LevelSelectScreen;
+import org.example.snake.ui.LoadingScreen;
 import org.example.snake.ui.HighScoresScreen;
 import org.example.snake.ui.SettingsScreen;
+import org.example.snake.ui.UiAtlas;
 
 public class MainGame extends Game {
     public SpriteBatch batch;
     public BitmapFont font;
+    public UiAtlas atlas;
+    public AssetManager assets;
+    public QualityGovernor quality;
+    public PerfOverlay perf;
+    /** Menu-side screens, built once and reused; everything else is disposed once replaced. */
+    private final Map<Class<?>, Screen> cachedScreens = new HashMap<>();
+    private final List<Screen> retired = new ArrayList<>();
+    private int disposedScreens;
+    private long createdAt;
+    private boolean firstFrameLogged;
 
     @Override
     public void create() {
+        createdAt = System.nanoTime();
         batch = new SpriteBatch();
-        font = loadFont();
+        perf = new PerfOverlay(batch);
+        assets = Assets.createManager();
+        quality = QualityGovernor.load(settings());
+        // The first menu frame needs all of these anyway, so they are loaded right here on the
+        // render thread. Streaming them behind the loading screen cost its own setup, the frames
+        // it spent waiting and a worker thread fighting this one for the CPU.
+        List<AssetDescriptor<?>> boot = new ArrayList<>(Assets.BOOT);
+        boot.addAll(MenuScreen.assets());
+        for (AssetDescriptor<?> d : boot) {
+            Assets.loadNow(assets, d);
+        }
+        font = assets.get(Assets.FONT);
         font.setColor(Color.WHITE);
-        setScreen(new MenuScreen(this));
+        atlas = assets.get(Assets.UI_ATLAS);
+        Gdx.app.log("Startup", "Assets ready after " + (System.nanoTime() - createdAt) / 1_000_000 + " ms");
+        showMenu();
+    }
+
+    /**
+     * Shows the screen made by {@code next} once the given assets are loaded. If any still need
+     * loading, the loading screen is shown meanwhile; otherwise the switch is immediate.
+     */
+    public void open(Supplier<Screen> next, List<AssetDescriptor<?>> needed) {
+        for (AssetDescriptor<?> d : needed) {
+            if (!assets.contains(d.fileName, d.type)) assets.load(d);
+        }
+        if (assets.isFinished()) {
+            setScreen(next.get());
+        } else {
+            setScreen(new LoadingScreen(this, next));
+        }
+    }
+
+    /** The preferences file shared with the launcher's resolution settings. */
+    public Preferences settings() {
+        return Gdx.app.getPreferences("settings");
+    }
+
+    /**
+     * Besides switching, retires the old screen unless it is cached. Retired screens are disposed
+     * after the current frame, since a screen usually asks for the switch from inside its own
+     * render and keeps drawing until that returns.
+     */
+    @Override
+    public void setScreen(Screen screen) {
+        Screen old = getScreen();
+        super.setScreen(screen);
+        if (old != null && old != screen && !cachedScreens.containsValue(old)) {
+            retired.add(old);
+        }
+        if (quality != null) quality.resetWindow();
+        Gdx.app.debug("Screens", (screen == null ? "none" : screen.getClass().getSimpleName())
+                + ": cached " + cachedScreens.size() + ", disposed " + disposedScreens
+                + ", managed textures " + Texture.getNumManagedTextures()
+                + ", native heap " + (Gdx.app.getNativeHeap() >> 10) + " KB");
+    }
+
+    private <T extends Screen> T cached(Class<T> type, Supplier<T> create) {
+        return type.cast(cachedScreens.computeIfAbsent(type, t -> create.get()));
+    }
+
+    private void disposeRetired() {
+        for (Screen s : retired) {
+            s.dispose();
+            disposedScreens++;
+        }
+        retired.clear();
+    }
+
+    @Override
+    public void render() {
+        long start = System.nanoTime();
+        super.render();
+        disposeRetired();
+        if (!(getScreen() instanceof LoadingScreen)) {
+            quality.recordFrame(System.nanoTime() - start);
+        }
+        if (!firstFrameLogged && getScreen() instanceof MenuScreen) {
+            firstFrameLogged = true;
+            Gdx.app.log("Startup", "First menu frame after " + (System.nanoTime() - createdAt) / 1_000_000 + " ms");
+        }
     }
 
     @Override
     public void dispose() {
-        if (getScreen() != null) getScreen().dispose();
+        Screen current = getScreen();
+        if (current != null && !cachedScreens.containsValue(current)) current.dispose();
+        disposeRetired();
+        for (Screen s : cachedScreens.values()) s.dispose();
+        cachedScreens.clear();
+        perf.dispose();
         batch.dispose();
-        font.dispose();
+        // Owns the font, the atlas and every loaded texture.
+        assets.dispose();
     }
 
     public void startLevel(Level level) {
@@ -41,19 +148,19 @@ public class MainGame extends Game {
     }
 
     public void showMenu() {
-        setScreen(new MenuScreen(this));
+        open(() -> cached(MenuScreen.class, () -> new MenuScreen(this)), MenuScreen.assets());
     }
 
     public void showLevelSelect() {
-        setScreen(new LevelSelectScreen(this));
+        setScreen(cached(LevelSelectScreen.class, () -> new LevelSelectScreen(this)));
     }
 
     public void showHighScores() {
-        setScreen(new HighScoresScreen(this));
+        setScreen(cached(HighScoresScreen.class, () -> new HighScoresScreen(this)));
     }
 
     public void showSettings() {
-        setScreen(new SettingsScreen(this));
+        setScreen(cached(SettingsScreen.class, () -> new SettingsScreen(this)));
     }
 
     public void showMultiplayerSetup() {
@@ -63,30 +170,4 @@ public class MainGame extends Game {
     public void startMultiplayer(String playerName, String serverUri) {
         setScreen(new MultiplayerGameScreen(this, playerName, serverUri));
     }
-
-    private BitmapFont loadFont() {
-        try {
-            if (com.badlogic.gdx.files.FileHandle.class != null &&
-                com.badlogic.gdx.Gdx.files != null &&
-                com.badlogic.gdx.Gdx.files.internal("fonts/NotoEmoji-Regular.ttf").exists()) {
-                FreeTypeFontGenerator gen = new FreeTypeFontGenerator(com.badlogic.gdx.Gdx.files.internal("fonts/NotoEmoji-Regular.ttf"));
-                FreeTypeFontGenerator.FreeTypeFontParameter p = new FreeTypeFontGenerator.FreeTypeFontParameter();
-                p.size = 28;
-                p.minFilter = TextureFilter.Linear;
-                p.magFilter = TextureFilter.Linear;
-                p.characters = FreeTypeFontGenerator.DEFAULT_CHARS + "▶★⚙️❌🔙🗑️✅🏠🔁";
-                BitmapFont f = gen.generateFont(p);
-                gen.dispose();
-                return f;
-            }
-        } catch (Throwable ignored) { }
-        BitmapFont f = new BitmapFont();
-        f.getData().setScale(1.8f);
-        for (TextureRegion r : f.getRegions()) {
-            if (r != null && r.getTexture() != null) {
-                r.getTexture().setFilter(TextureFilter.Linear, TextureFilter.Linear);
-            }
-        }
-        return f;
-    }
 }
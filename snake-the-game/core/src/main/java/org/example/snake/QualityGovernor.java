@@ -0,0 +1,104 @@
+package org.example.snake;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Preferences;
+import java.util.Arrays;
+
+/**
+ * Holds the chosen {@link GraphicsQuality} and, in {@link GraphicsQuality#AUTO}, the preset
+ * actually in use. Every frame's render time goes into a fixed window; when a window fills, its
+ * 95th percentile is compared with the frame budget. Over budget steps one preset down at once.
+ * Stepping up needs {@link #WINDOWS_TO_RECOVER} windows in a row under half the budget, so the
+ * preset does not flip back and forth around the threshold.
+ *
+ * <p>Render time is measured around {@code Game.render()} rather than taken from the frame delta,
+ * which with vsync never drops below the refresh interval and would hide any headroom.
+ */
+public final class QualityGovernor {
+    static final String PREF_KEY = "quality";
+    private static final int WINDOW = 120;
+    private static final int WINDOWS_TO_RECOVER = 3;
+    private static final float BUDGET_MS = 1000f / 60f;
+
+    private final float[] samples = new float[WINDOW];
+    private final float[] sorted = new float[WINDOW];
+    private GraphicsQuality setting;
+    private GraphicsQuality current;
+    private int count;
+    private int goodWindows;
+
+    QualityGovernor(GraphicsQuality setting) {
+        this.setting = setting;
+        this.current = setting == GraphicsQuality.AUTO ? GraphicsQuality.HIGH : setting;
+    }
+
+    static QualityGovernor load(Preferences prefs) {
+        return new QualityGovernor(GraphicsQuality.fromName(prefs.getString(PREF_KEY, ""), GraphicsQuality.AUTO));
+    }
+
+    /** The user's choice, possibly {@link GraphicsQuality#AUTO}. */
+    public GraphicsQuality setting() {
+        return setting;
+    }
+
+    /** The preset to render with; never {@link GraphicsQuality#AUTO}. */
+    public GraphicsQuality current() {
+        return current;
+    }
+
+    /** Applies and persists a new choice, next to the resolution settings. */
+    public void setting(GraphicsQuality setting, Preferences prefs) {
+        this.setting = setting;
+        if (setting != GraphicsQuality.AUTO) {
+            current = setting;
+        }
+        resetWindow();
+        prefs.putString(PREF_KEY, setting.name());
+        prefs.flush();
+    }
+
+    /** Drops partial measurements, e.g. after a screen switch whose first frames are not typical. */
+    void resetWindow() {
+        count = 0;
+    }
+
+    void recordFrame(long renderNanos) {
+        if (setting != GraphicsQuality.AUTO) {
+            return;
+        }
+        samples[count++] = renderNanos / 1_000_000f;
+        if (count < WINDOW) {
+            return;
+        }
+        count = 0;
+        float p95 = percentile95();
+        if (p95 > BUDGET_MS) {
+            goodWindows = 0;
+            change(current.lower(), p95);
+        } else if (p95 < BUDGET_MS / 2f) {
+            if (++goodWindows >= WINDOWS_TO_RECOVER) {
+                goodWindows = 0;
+                change(current.higher(), p95);
+            }
+        } else {
+            goodWindows = 0;
+        }
+    }
+
+    private float percentile95() {
+        System.arraycopy(samples, 0, sorted, 0, WINDOW);
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(0.95 * WINDOW) - 1];
+    }
+
+    private void change(GraphicsQuality next, float p95) {
+        if (next == current) {
+            return;
+        }
+        if (Gdx.app != null) {
+            Gdx.app.log("Quality", String.format("p95 render time %.1f ms, switching %s -> %s",
+                    p95, current.title, next.title));
+        }
+        current = next;
+    }
+}
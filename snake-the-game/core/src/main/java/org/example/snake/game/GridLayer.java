@@ -0,0 +1,113 @@
+package org.example.snake.game;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntMap;
+
+/**
+ * Checkerboard background baked into textures once per cell size. The grid is split into
+ * square chunks; chunks of the same size look identical, so at most four textures exist
+ * (full, right edge, top edge, corner) and each visible chunk is a single batch draw.
+ */
+public final class GridLayer implements Disposable {
+    private final int cols;
+    private final int rows;
+    private final int chunkCells;
+    private final Color even;
+    private final Color odd;
+    private final IntMap<Texture> textures = new IntMap<>();
+    private int cellSize;
+
+    /**
+     * @param chunkCells chunk edge in cells; must be even so every chunk starts on the same parity
+     * @param odd color of odd cells, or null to leave them transparent
+     */
+    public GridLayer(int cols, int rows, int chunkCells, Color even, Color odd) {
+        this.cols = cols;
+        this.rows = rows;
+        this.chunkCells = Math.max(2, chunkCells + (chunkCells & 1));
+        this.even = new Color(even);
+        this.odd = odd != null ? new Color(odd) : null;
+    }
+
+    /** Rebakes the chunk textures if the cell size changed. */
+    public void build(int cellSize) {
+        if (cellSize == this.cellSize) {
+            return;
+        }
+        disposeTextures();
+        this.cellSize = cellSize;
+    }
+
+    /** Draws every chunk; call between {@code batch.begin()} and {@code batch.end()}. */
+    public void draw(SpriteBatch batch, float originX, float originY) {
+        draw(batch, originX, originY, 0, 0, cols - 1, rows - 1);
+    }
+
+    /** Draws the chunks overlapping the given inclusive cell range. */
+    public void draw(SpriteBatch batch, float originX, float originY, int minCol, int minRow, int maxCol, int maxRow) {
+        if (cellSize <= 0) {
+            return;
+        }
+        int firstX = Math.max(0, minCol) / chunkCells;
+        int firstY = Math.max(0, minRow) / chunkCells;
+        int lastX = Math.min(cols - 1, maxCol) / chunkCells;
+        int lastY = Math.min(rows - 1, maxRow) / chunkCells;
+        for (int cy = firstY; cy <= lastY; cy++) {
+            int h = Math.min(chunkCells, rows - cy * chunkCells);
+            for (int cx = firstX; cx <= lastX; cx++) {
+                int w = Math.min(chunkCells, cols - cx * chunkCells);
+                batch.draw(chunkTexture(w, h),
+                        originX + cx * chunkCells * cellSize,
+                        originY + cy * chunkCells * cellSize);
+            }
+        }
+    }
+
+    private Texture chunkTexture(int w, int h) {
+        int key = w * 1024 + h;
+        Texture texture = textures.get(key);
+        if (texture == null) {
+            texture = bake(w, h);
+            textures.put(key, texture);
+        }
+        return texture;
+    }
+
+    private Texture bake(int w, int h) {
+        Pixmap pm = new Pixmap(w * cellSize, h * cellSize, Pixmap.Format.RGBA8888);
+        pm.setBlending(Pixmap.Blending.None);
+        if (odd != null) {
+            pm.setColor(odd);
+        } else {
+            pm.setColor(0, 0, 0, 0);
+        }
+        pm.fill();
+        pm.setColor(even);
+        for (int y = 0; y < h; y++) {
+            int py = (h - 1 - y) * cellSize;
+            for (int x = (y & 1); x < w; x += 2) {
+                pm.fillRectangle(x * cellSize, py, cellSize, cellSize);
+            }
+        }
+        Texture texture = new Texture(pm);
+        texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        pm.dispose();
+        return texture;
+    }
+
+    private void disposeTextures() {
+        for (Texture texture : textures.values()) {
+            texture.dispose();
+        }
+        textures.clear();
+    }
+
+    @Override
+    public void dispose() {
+        disposeTextures();
+    }
+}
@@ -5,96 +5,55 @@ import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.math.Vector2;
 
-import java.util.ArrayList;
-import java.util.Deque;
-import java.util.List;
+import java.util.Arrays;
+import org.example.snake.GraphicsQuality;
+import org.example.snake.engine.Snake;
 
 public final class SnakeRenderer {
-    private SnakeRenderer() {}
+    private static final Color BODY_COLOR = new Color(0.2f, 0.8f, 0.2f, 1f);
 
-    public static void drawBackgroundGrid(ShapeRenderer shapes, int originX, int originY, int cellSize, int cols, int rows) {
-        shapes.setColor(new Color(0.12f, 0.12f, 0.17f, 1f));
-        for (int y = 0; y < rows; y++) {
-            for (int x = 0; x < cols; x++) {
-                if (((x + y) & 1) == 0) {
-                    shapes.rect(originX + x * cellSize, originY + y * cellSize, cellSize, cellSize);
-                }
-            }
-        }
-    }
+    private SnakeRenderer() {}
 
-    public static void drawFood(ShapeRenderer shapes, int originX, int originY, int cellSize, GameScreen.Point food) {
-        if (food == null) return;
+    public static void drawFood(ShapeRenderer shapes, int originX, int originY, int cellSize, int foodX, int foodY) {
         shapes.setColor(Color.SCARLET);
-        shapes.rect(originX + food.x * cellSize, originY + food.y * cellSize, cellSize, cellSize);
+        shapes.rect(originX + foodX * cellSize, originY + foodY * cellSize, cellSize, cellSize);
     }
 
+    /**
+     * Draws the wavy snake body, head, eyes and tongue. All intermediate points live in the
+     * caller-owned {@link SausageBuffers}, so a frame allocates nothing regardless of length.
+     * The quality preset decides the circle detail, the wave and the per-segment joints.
+     */
     public static void drawSnakeSausage(ShapeRenderer shapes,
                                         int originX, int originY, int cellSize,
-                                        Deque<GameScreen.Point> snake,
-                                        Deque<GameScreen.Point> prevSnake,
-                                        float alpha, float elapsedTime) {
-        if (snake == null || snake.isEmpty()) return;
-
-        List<Vector2> curr = new ArrayList<>();
-        List<Vector2> prev = new ArrayList<>();
-        for (GameScreen.Point p : snake) curr.add(gridToCenter(originX, originY, cellSize, p));
-        if (prevSnake != null && prevSnake.size() == snake.size()) {
-            for (GameScreen.Point p : prevSnake) prev.add(gridToCenter(originX, originY, cellSize, p));
-        } else {
-            prev.addAll(curr);
-        }
-
-        int n = curr.size();
+                                        SausageBuffers buf,
+                                        float alpha, float elapsedTime, GraphicsQuality quality) {
+        int n = layout(originX, originY, cellSize, buf, alpha, elapsedTime, quality);
         if (n == 0) return;
-        Vector2[] tangents = new Vector2[n];
-        for (int i = 0; i < n; i++) {
-            Vector2 a = (i == 0) ? curr.get(i) : curr.get(i - 1);
-            Vector2 b = (i == n - 1) ? curr.get(i) : curr.get(i + 1);
-            Vector2 t = new Vector2(b).sub(a);
-            if (t.isZero(0.0001f)) t.set(1, 0);
-            tangents[i] = t.nor();
-        }
-
+        float[] tanX = buf.tanX, tanY = buf.tanY;
+        float[] ptsX = buf.ptsX, ptsY = buf.ptsY;
         float bodyRadius = cellSize * 0.35f;
-        float A = cellSize * 0.26f;
-        float k = 1.4f;
-        float w = 5.0f;
-
-        List<Vector2> pts = new ArrayList<>(n);
-        for (int i = 0; i < n; i++) {
-            Vector2 p0 = (i < prev.size()) ? prev.get(i) : curr.get(i);
-            Vector2 p1 = curr.get(i);
-            Vector2 p = new Vector2(p0).lerp(p1, alpha);
-            Vector2 t = tangents[i];
-            float phase = i * k - elapsedTime * w;
-            float off = A * MathUtils.sin(phase);
-            p.add(-t.y * off, t.x * off);
-            pts.add(p);
-        }
 
-        shapes.setColor(new Color(0.2f, 0.8f, 0.2f, 1f));
+        int segments = quality.circleSegments;
+        shapes.setColor(BODY_COLOR);
         for (int i = n - 1; i > 0; i--) {
-            Vector2 a = pts.get(i);
-            Vector2 b = pts.get(i - 1);
-            shapes.rectLine(a.x, a.y, b.x, b.y, bodyRadius * 2f);
+            shapes.rectLine(ptsX[i], ptsY[i], ptsX[i - 1], ptsY[i - 1], bodyRadius * 2f);
         }
-        for (int i = 1; i < n - 1; i++) {
-            Vector2 p = pts.get(i);
-            shapes.circle(p.x, p.y, bodyRadius);
+        if (quality.segmentJoints) {
+            for (int i = 1; i < n - 1; i++) {
+                shapes.circle(ptsX[i], ptsY[i], bodyRadius, segments);
+            }
         }
-        Vector2 tail = pts.get(n - 1);
-        shapes.circle(tail.x, tail.y, bodyRadius);
+        shapes.circle(ptsX[n - 1], ptsY[n - 1], bodyRadius, segments);
 
-        Vector2 head = pts.get(0);
+        float headX = ptsX[0];
+        float headY = ptsY[0];
         float headRadius = bodyRadius * 1.15f;
         shapes.setColor(Color.LIME);
-        shapes.circle(head.x, head.y, headRadius);
+        shapes.circle(headX, headY, headRadius, segments);
 
-        Vector2 t0 = tangents[0];
-        float fwdX = -t0.x, fwdY = -t0.y;
+        float fwdX = -tanX[0], fwdY = -tanY[0];
         float inv = 1f / (float) Math.sqrt(fwdX * fwdX + fwdY * fwdY);
         fwdX *= inv; fwdY *= inv;
         float nX = -fwdY, nY = fwdX;
@@ -102,23 +61,25 @@ public final class SnakeRenderer {
         float eyeSide = headRadius * 0.6f;
         float eyeForward = headRadius * 0.15f;
         float eyeR = Math.max(2f, headRadius * 0.22f);
-        float eyeLX = head.x + nX * eyeSide + fwdX * eyeForward;
-        float eyeLY = head.y + nY * eyeSide + fwdY * eyeForward;
-        float eyeRX = head.x - nX * eyeSide + fwdX * eyeForward;
-        float eyeRY = head.y - nY * eyeSide + fwdY * eyeForward;
+        float eyeLX = headX + nX * eyeSide + fwdX * eyeForward;
+        float eyeLY = headY + nY * eyeSide + fwdY * eyeForward;
+        float eyeRX = headX - nX * eyeSide + fwdX * eyeForward;
+        float eyeRY = headY - nY * eyeSide + fwdY * eyeForward;
         shapes.setColor(Color.WHITE);
-        shapes.circle(eyeLX, eyeLY, eyeR);
-        shapes.circle(eyeRX, eyeRY, eyeR);
-        shapes.setColor(Color.BLACK);
-        float pupilR = Math.max(1.5f, eyeR * 0.45f);
-        float pox = fwdX * eyeR * 0.2f;
-        float poy = fwdY * eyeR * 0.2f;
-        shapes.circle(eyeLX + pox, eyeLY + poy, pupilR);
-        shapes.circle(eyeRX + pox, eyeRY + poy, pupilR);
+        shapes.circle(eyeLX, eyeLY, eyeR, segments);
+        shapes.circle(eyeRX, eyeRY, eyeR, segments);
+        if (quality.segmentJoints) {
+            shapes.setColor(Color.BLACK);
+            float pupilR = Math.max(1.5f, eyeR * 0.45f);
+            float pox = fwdX * eyeR * 0.2f;
+            float poy = fwdY * eyeR * 0.2f;
+            shapes.circle(eyeLX + pox, eyeLY + poy, pupilR, segments);
+            shapes.circle(eyeRX + pox, eyeRY + poy, pupilR, segments);
+        }
 
         shapes.setColor(Color.SCARLET);
-        float mouthX = head.x + fwdX * headRadius * 1.05f;
-        float mouthY = head.y + fwdY * headRadius * 1.05f;
+        float mouthX = headX + fwdX * headRadius * 1.05f;
+        float mouthY = headY + fwdY * headRadius * 1.05f;
         float tongueLen = headRadius * 1.2f;
         float ang = 18f * MathUtils.degreesToRadians;
         float cosA = MathUtils.cos(ang), sinA = MathUtils.sin(ang);
@@ -139,14 +100,110 @@ public final class SnakeRenderer {
         shapes.triangle(baseRX, baseRY, mouthX, mouthY, tipRX, tipRY);
     }
 
+    /**
+     * Fills the buffers' tangents and screen points: the body blended between the previous and
+     * current cells and offset by the wave. Split from {@link #drawSnakeSausage} so the
+     * arithmetic runs without a GL context.
+     *
+     * @return number of points written
+     */
+    static int layout(int originX, int originY, int cellSize, SausageBuffers buf,
+                      float alpha, float elapsedTime, GraphicsQuality quality) {
+        int n = buf.count;
+        if (n == 0) return 0;
+        boolean blend = buf.prevCount == n;
+        float half = cellSize / 2f;
+        float[] currX = buf.currX, currY = buf.currY;
+        float[] prevX = blend ? buf.prevX : currX, prevY = blend ? buf.prevY : currY;
+        float[] tanX = buf.tanX, tanY = buf.tanY;
+        float[] ptsX = buf.ptsX, ptsY = buf.ptsY;
+
+        for (int i = 0; i < n; i++) {
+            int a = (i == 0) ? i : i - 1;
+            int b = (i == n - 1) ? i : i + 1;
+            float tx = currX[b] - currX[a];
+            float ty = currY[b] - currY[a];
+            float len = (float) Math.sqrt(tx * tx + ty * ty);
+            if (len < 0.0001f) {
+                tanX[i] = 1f;
+                tanY[i] = 0f;
+            } else {
+                tanX[i] = tx / len;
+                tanY[i] = ty / len;
+            }
+        }
+
+        float A = quality.bodyWave ? cellSize * 0.26f : 0f;
+        float k = 1.4f;
+        float w = 5.0f;
+
+        for (int i = 0; i < n; i++) {
+            float x = prevX[i] + (currX[i] - prevX[i]) * alpha;
+            float y = prevY[i] + (currY[i] - prevY[i]) * alpha;
+            float phase = i * k - elapsedTime * w;
+            float off = A * MathUtils.sin(phase);
+            ptsX[i] = originX + x * cellSize + half - tanY[i] * off;
+            ptsY[i] = originY + y * cellSize + half + tanX[i] * off;
+        }
+        return n;
+    }
+
     public static void drawHud(SpriteBatch batch, BitmapFont font, int originX, int worldHeight, int score, boolean gameOver) {
         if (gameOver) return;
         font.draw(batch, "Score: " + score, originX + 8, worldHeight - 8);
     }
 
-    private static Vector2 gridToCenter(int originX, int originY, int cellSize, GameScreen.Point p) {
-        return new Vector2(originX + p.x * cellSize + cellSize / 2f,
-                originY + p.y * cellSize + cellSize / 2f);
+    /**
+     * Caller-owned scratch arrays for {@link #drawSnakeSausage}. Cell coordinates are loaded once
+     * per game step; the per-frame tangents and wave points reuse the same arrays.
+     */
+    public static final class SausageBuffers {
+        private int count;
+        private int prevCount;
+        private float[] currX = new float[0], currY = new float[0];
+        private float[] prevX = new float[0], prevY = new float[0];
+        private float[] tanX = new float[0], tanY = new float[0];
+        private float[] ptsX = new float[0], ptsY = new float[0];
+
+        float pointX(int i) { return ptsX[i]; }
+        float pointY(int i) { return ptsY[i]; }
+
+        /** Keeps the loaded body as the interpolation start; call before the snake steps. */
+        public void keepAsPrevious() {
+            System.arraycopy(currX, 0, prevX, 0, count);
+            System.arraycopy(currY, 0, prevY, 0, count);
+            prevCount = count;
+        }
+
+        /** Loads the body, head first, in cell coordinates. */
+        public void load(Snake snake) {
+            int n = snake.length();
+            ensureCapacity(n);
+            for (int i = 0; i < n; i++) {
+                currX[i] = snake.x(i);
+                currY[i] = snake.y(i);
+            }
+            count = n;
+        }
+
+        /** Loads the body and drops the previous one, so the next frame draws without blending. */
+        public void reset(Snake snake) {
+            load(snake);
+            keepAsPrevious();
+        }
+
+        private void ensureCapacity(int n) {
+            if (currX.length >= n) return;
+            int size = Math.max(n, currX.length * 2);
+            currX = Arrays.copyOf(currX, size);
+            currY = Arrays.copyOf(currY, size);
+            prevX = Arrays.copyOf(prevX, size);
+            prevY = Arrays.copyOf(prevY, size);
+            tanX = new float[size];
+            tanY = new float[size];
+            ptsX = new float[size];
+            ptsY = new float[size];
+        }
     }
 }
 
@@ -0,0 +1,116 @@
+package org.example.snake.multiplayer;
+
+/**
+ * Connection quality as seen from the client: round-trip time and jitter from ping/pong, the
+ * server's wall clock offset, and how long a turn takes from the keypress until a snapshot acks
+ * it. RTT and jitter are smoothed the way TCP does it (RFC 6298). The clock offset is taken from
+ * the fastest of the recent pings, whose reply was delayed the least and so is the most exact.
+ * Updated from the WebSocket listener and the render thread, read from the render thread.
+ */
+public final class LinkStats {
+    /** Recent pings considered for the clock offset. */
+    private static final int OFFSET_WINDOW = 8;
+    /** Turns awaiting an ack; older ones are forgotten rather than measured late. */
+    private static final int PENDING_INPUTS = 16;
+
+    private boolean sampled;
+    private double rttMillis;
+    private double jitterMillis;
+    private long lastRttMillis = -1;
+    private final double[] offsets = new double[OFFSET_WINDOW];
+    private final double[] offsetRtts = new double[OFFSET_WINDOW];
+    private int offsetCount;
+    private int offsetNext;
+    private double clockOffsetMillis;
+
+    private final long[] pendingSeqs = new long[PENDING_INPUTS];
+    private final long[] pendingNanos = new long[PENDING_INPUTS];
+    private double inputLatencyMillis;
+    private long inputSamples;
+
+    /**
+     * Records a pong.
+     *
+     * @param sentNanos the {@link System#nanoTime()} the ping carried and the server echoed
+     * @param serverMillis the server's wall clock when it answered
+     */
+    synchronized void pong(long sentNanos, long serverMillis) {
+        long now = System.nanoTime();
+        double rtt = (now - sentNanos) / 1_000_000.0;
+        if (rtt < 0) {
+            return;
+        }
+        if (!sampled) {
+            rttMillis = rtt;
+            jitterMillis = rtt / 2;
+            sampled = true;
+        } else {
+            jitterMillis += (Math.abs(rtt - rttMillis) - jitterMillis) / 4;
+            rttMillis += (rtt - rttMillis) / 8;
+        }
+        lastRttMillis = Math.round(rtt);
+        // The server answered about half a round trip ago.
+        offsets[offsetNext] = serverMillis - (System.currentTimeMillis() - rtt / 2);
+        offsetRtts[offsetNext] = rtt;
+        offsetNext = (offsetNext + 1) % OFFSET_WINDOW;
+        offsetCount = Math.min(OFFSET_WINDOW, offsetCount + 1);
+        int best = 0;
+        for (int i = 1; i < offsetCount; i++) {
+            if (offsetRtts[i] < offsetRtts[best]) {
+                best = i;
+            }
+        }
+        clockOffsetMillis = offsets[best];
+    }
+
+    synchronized void inputSent(long seq, long nanos) {
+        int slot = (int) (seq % PENDING_INPUTS);
+        pendingSeqs[slot] = seq;
+        pendingNanos[slot] = nanos;
+    }
+
+    /** Measures every pending turn that {@code ack} covers; a negative, i.e. absent, ack is ignored. */
+    synchronized void acked(long ack, long nanos) {
+        if (ack < 0) {
+            return;
+        }
+        for (int i = 0; i < PENDING_INPUTS; i++) {
+            if (pendingSeqs[i] > 0 && pendingSeqs[i] <= ack) {
+                double latency = (nanos - pendingNanos[i]) / 1_000_000.0;
+                inputLatencyMillis = inputSamples == 0 ? latency : inputLatencyMillis + (latency - inputLatencyMillis) / 8;
+                inputSamples++;
+                pendingSeqs[i] = 0;
+            }
+        }
+    }
+
+    /** Whether at least one pong has been received. */
+    public synchronized boolean sampled() {
+        return sampled;
+    }
+
+    /** Smoothed round-trip time. */
+    public synchronized double rttMillis() {
+        return rttMillis;
+    }
+
+    /** Mean deviation of the round-trip time. */
+    public synchronized double jitterMillis() {
+        return jitterMillis;
+    }
+
+    /** The latest raw round trip, reported back to the server; -1 before the first pong. */
+    synchronized long lastRttMillis() {
+        return lastRttMillis;
+    }
+
+    /** Server wall clock minus client wall clock. */
+    public synchronized double clockOffsetMillis() {
+        return clockOffsetMillis;
+    }
+
+    /** Smoothed time from sending a turn to receiving the snapshot that acks it; 0 before any. */
+    public synchronized double inputLatencyMillis() {
+        return inputLatencyMillis;
+    }
+}
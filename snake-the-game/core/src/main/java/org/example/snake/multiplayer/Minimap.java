@@ -0,0 +1,169 @@
+package org.example.snake.multiplayer;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import java.util.Arrays;
+
+/**
+ * One pixel per arena cell, kept in a {@link Pixmap} that is patched rather than redrawn. Each
+ * snapshot marks the cells it wants colored; cells that were colored last time but are no longer
+ * wanted (tails, eaten food) go back to the background, and only cells whose color actually
+ * changed are written. The texture is re-uploaded once per snapshot, and only if something
+ * changed, so the per-frame cost is a single sprite.
+ */
+final class Minimap implements Disposable {
+    private static final int BACKGROUND = Color.rgba8888(0.08f, 0.09f, 0.12f, 0.85f);
+    private static final int FOOD = Color.rgba8888(Color.SCARLET);
+    private static final int SELF = Color.rgba8888(Color.WHITE);
+    private static final int FALLBACK = Color.rgba8888(Color.GREEN);
+
+    private final ObjectIntMap<String> colors = new ObjectIntMap<>();
+    private Pixmap pixmap;
+    private Texture texture;
+    private int cols;
+    private int rows;
+    /** Color currently in the pixmap, per cell. */
+    private int[] painted = new int[0];
+    /** Color the snapshot being applied asks for; only meaningful where {@code mark == stamp}. */
+    private int[] wanted = new int[0];
+    private int[] mark = new int[0];
+    private int stamp;
+    private int[] occupied = new int[256];
+    private int occupiedCount;
+    private int[] next = new int[256];
+    private int nextCount;
+    private boolean dirty;
+
+    /** (Re)creates the map for an arena size; a no-op if the size is unchanged. */
+    void resize(int cols, int rows) {
+        if (pixmap != null && cols == this.cols && rows == this.rows) {
+            return;
+        }
+        dispose();
+        this.cols = cols;
+        this.rows = rows;
+        pixmap = new Pixmap(cols, rows, Pixmap.Format.RGBA8888);
+        pixmap.setBlending(Pixmap.Blending.None);
+        pixmap.setColor(BACKGROUND);
+        pixmap.fill();
+        texture = new Texture(pixmap);
+        texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        painted = new int[cols * rows];
+        Arrays.fill(painted, BACKGROUND);
+        wanted = new int[cols * rows];
+        mark = new int[cols * rows];
+        stamp = 0;
+        occupiedCount = 0;
+    }
+
+    /** Applies a snapshot: food first, then snakes, then the local snake on top. */
+    void update(MultiplayerClient.Snapshot snapshot, String selfId) {
+        if (pixmap == null) {
+            return;
+        }
+        if (++stamp == 0) {
+            Arrays.fill(mark, 0);
+            stamp = 1;
+        }
+        nextCount = 0;
+        for (int i = 0; i < snapshot.foodCount; i++) {
+            want(snapshot.foodX[i], snapshot.foodY[i], FOOD);
+        }
+        MultiplayerClient.Player self = null;
+        for (int p = 0; p < snapshot.playerCount; p++) {
+            MultiplayerClient.Player player = snapshot.players[p];
+            if (selfId != null && selfId.equals(player.id)) {
+                self = player;
+                continue;
+            }
+            int color = color(player.color);
+            for (int i = 0; i < player.length; i++) {
+                want(player.xs[i], player.ys[i], color);
+            }
+        }
+        if (self != null) {
+            for (int i = 0; i < self.length; i++) {
+                want(self.xs[i], self.ys[i], SELF);
+            }
+        }
+
+        for (int k = 0; k < occupiedCount; k++) {
+            int cell = occupied[k];
+            if (mark[cell] != stamp) {
+                paint(cell, BACKGROUND);
+            }
+        }
+        for (int k = 0; k < nextCount; k++) {
+            int cell = next[k];
+            if (painted[cell] != wanted[cell]) {
+                paint(cell, wanted[cell]);
+            }
+        }
+        int[] swap = occupied;
+        occupied = next;
+        occupiedCount = nextCount;
+        next = swap;
+
+        if (dirty) {
+            texture.draw(pixmap, 0, 0);
+            dirty = false;
+        }
+    }
+
+    /** Draws the map; call between {@code begin()} and {@code end()}. */
+    void draw(Batch batch, float x, float y, float width, float height) {
+        if (texture != null) {
+            batch.draw(texture, x, y, width, height);
+        }
+    }
+
+    private void want(int x, int y, int color) {
+        if (x < 0 || y < 0 || x >= cols || y >= rows) {
+            return;
+        }
+        int cell = y * cols + x;
+        wanted[cell] = color;
+        if (mark[cell] != stamp) {
+            mark[cell] = stamp;
+            if (nextCount == next.length) {
+                next = Arrays.copyOf(next, next.length * 2);
+            }
+            next[nextCount++] = cell;
+        }
+    }
+
+    private void paint(int cell, int color) {
+        painted[cell] = color;
+        // Pixmap rows run top-down, arena rows bottom-up.
+        pixmap.drawPixel(cell % cols, rows - 1 - cell / cols, color);
+        dirty = true;
+    }
+
+    private int color(String hex) {
+        if (hex == null) {
+            return FALLBACK;
+        }
+        int color = colors.get(hex, 0);
+        if (color == 0) {
+            try {
+                color = Color.rgba8888(Color.valueOf(hex));
+            } catch (IllegalArgumentException ex) {
+                color = FALLBACK;
+            }
+            colors.put(hex, color);
+        }
+        return color;
+    }
+
+    @Override
+    public void dispose() {
+        if (texture != null) texture.dispose();
+        if (pixmap != null) pixmap.dispose();
+        texture = null;
+        pixmap = null;
+    }
+}
@@ -4,26 +4,82 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.badlogic.gdx.utils.IntMap;
+import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import org.example.snake.engine.net.SnapshotCodec;
 
 public final class MultiplayerClient implements WebSocket.Listener {
+    /** Backoff before the first reconnect attempt; doubled per attempt up to {@link #MAX_RECONNECT_DELAY_MILLIS}. */
+    private static final long BASE_RECONNECT_DELAY_MILLIS = 500;
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 8_000;
+    /** About 30 s of retrying in total, matching the server's default resume grace period. */
+    private static final int MAX_RECONNECT_ATTEMPTS = 6;
+    private static final long PING_INTERVAL_MILLIS = 1_000;
+
     private final URI serverUri;
     private final String playerName;
     private final ObjectMapper mapper = new ObjectMapper();
     private final Queue<Event> events = new ConcurrentLinkedQueue<>();
     private final AtomicBoolean started = new AtomicBoolean(false);
-    private final StringBuilder partial = new StringBuilder();
+    /** Handle table from {@code meta} messages; only touched by the WebSocket listener. */
+    private final IntMap<PlayerInfo> playerTable = new IntMap<>();
+    private final SnapshotDecoder decoder = new SnapshotDecoder(mapper.getFactory(), playerTable);
+    private final SnapshotBuffers snapshots = new SnapshotBuffers();
+    private final AtomicLong droppedSnapshots = new AtomicLong();
+    // Written only by the WebSocket listener, which the JDK calls one message at a time.
+    private volatile long snapshotsReceived;
+    private volatile long snapshotChars;
+    private volatile long snapshotWireBytes;
+    private volatile long decodeNanos;
+    private char[] text = new char[16 * 1024];
+    private int textLength;
+    private final SnapshotCodec codec = new SnapshotCodec();
+    private final CharsetDecoder utf8 = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private byte[] binary = new byte[8 * 1024];
+    private int binaryLength;
 
     private volatile WebSocket socket;
+    /** Latest token from the server's welcome; presented on reconnect to take back the same snake. */
+    private volatile String resumeToken;
+    /** Tick of the newest decoded snapshot, so the server only replays what was missed. */
+    private volatile long lastTick;
+    private volatile boolean closing;
+    private final AtomicInteger reconnectAttempts = new AtomicInteger();
+    /** Sequence number of the last direction sent; kept across reconnects so acks stay comparable. */
+    private long inputSeq;
+    /**
+     * Latest {@code ack} message; the server sends it just before the snapshot it applies to.
+     * -1 until the current connection has sent one.
+     */
+    private long ack = -1;
+    private final LinkStats link = new LinkStats();
+    /** Tail of the send chain; the JDK WebSocket rejects a send while another is still pending. */
+    private CompletableFuture<?> lastSend = CompletableFuture.completedFuture(null);
 
     public MultiplayerClient(String serverUri, String playerName) {
         this.serverUri = URI.create(serverUri);
@@ -34,33 +90,106 @@ public final class MultiplayerClient implements WebSocket.Listener {
         if (!started.compareAndSet(false, true)) {
             return;
         }
+        open();
+    }
+
+    private void open() {
+        // The previous socket's listener calls are over, so its partial messages can be dropped.
+        textLength = 0;
+        binaryLength = 0;
+        ack = -1;
         HttpClient.newHttpClient()
                 .newWebSocketBuilder()
                 .connectTimeout(Duration.ofSeconds(5))
                 .buildAsync(serverUri, this)
                 .whenComplete((ws, err) -> {
                     if (err != null) {
-                        events.add(Event.error("Failed to open WebSocket", err));
+                        if (resumeToken != null && !closing) {
+                            connectionLost("Failed to reconnect");
+                        } else {
+                            events.add(Event.error("Failed to open WebSocket", err));
+                        }
                         return;
                     }
-                    socket = ws;
+                    synchronized (this) {
+                        // A send stuck on the dead socket must not hold up the new one.
+                        lastSend = CompletableFuture.completedFuture(null);
+                        socket = ws;
+                    }
                     events.add(Event.connected());
                     sendJoin();
+                    schedulePing(ws);
                 });
     }
 
-    public void sendDirection(Direction direction) {
+    /** Pings {@code ws} every {@link #PING_INTERVAL_MILLIS} until it is replaced or closed. */
+    private void schedulePing(WebSocket ws) {
+        CompletableFuture.runAsync(() -> {
+            if (ws != socket || closing) {
+                return;
+            }
+            sendPing();
+            schedulePing(ws);
+        }, CompletableFuture.delayedExecutor(PING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    /** The server echoes {@code t} in its pong; {@code rtt} reports the last round trip for its metrics. */
+    private void sendPing() {
+        ObjectNode node = mapper.createObjectNode();
+        node.put("type", "ping");
+        node.put("t", System.nanoTime());
+        long rtt = link.lastRttMillis();
+        if (rtt >= 0) {
+            node.put("rtt", rtt);
+        }
+        sendAsync(node);
+    }
+
+    /**
+     * Schedules a reconnect with exponential backoff and jitter, so clients dropped together by a
+     * server hiccup do not all come back in the same instant. Gives up with a {@link Event.Closed}
+     * after {@link #MAX_RECONNECT_ATTEMPTS}.
+     */
+    private void connectionLost(String reason) {
+        socket = null;
+        int attempt = reconnectAttempts.incrementAndGet();
+        if (attempt > MAX_RECONNECT_ATTEMPTS) {
+            events.add(Event.closed(WebSocket.NORMAL_CLOSURE, reason));
+            return;
+        }
+        long ceiling = Math.min(MAX_RECONNECT_DELAY_MILLIS, BASE_RECONNECT_DELAY_MILLIS << (attempt - 1));
+        long delay = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+        events.add(Event.reconnecting(attempt, delay));
+        CompletableFuture.runAsync(() -> {
+            if (!closing) {
+                open();
+            }
+        }, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Sends a turn, numbered and stamped with the newest snapshot tick. The server queues turns
+     * and applies one per tick, and acks the last one it consumed along with its snapshots.
+     *
+     * @return the input's sequence number, or 0 if it was not sent
+     */
+    public long sendDirection(Direction direction) {
         WebSocket ws = socket;
         if (ws == null || direction == null) {
-            return;
+            return 0;
         }
         ObjectNode node = mapper.createObjectNode();
         node.put("type", "direction");
         node.put("direction", direction.name());
+        node.put("seq", ++inputSeq);
+        node.put("tick", lastTick);
+        link.inputSent(inputSeq, System.nanoTime());
         sendAsync(node);
+        return inputSeq;
     }
 
     public void close() {
+        closing = true;
         WebSocket ws = socket;
         if (ws != null) {
             ws.sendClose(WebSocket.NORMAL_CLOSURE, "bye");
@@ -71,6 +200,49 @@ public final class MultiplayerClient implements WebSocket.Listener {
         return events.poll();
     }
 
+    /**
+     * Returns the newest decoded snapshot if one arrived since the last call, otherwise null.
+     * Snapshots that were superseded before being polled are dropped. Must be called from the
+     * render thread; the returned object is pooled and stays valid until the next non-null result.
+     */
+    public Snapshot pollSnapshot() {
+        return snapshots.acquire();
+    }
+
+    /** Number of snapshots that were replaced by a newer one before the render thread saw them. */
+    public long droppedSnapshots() {
+        return droppedSnapshots.get();
+    }
+
+    public long snapshotsReceived() {
+        return snapshotsReceived;
+    }
+
+    /** Total size of all decoded snapshots, in characters of JSON text. */
+    public long snapshotChars() {
+        return snapshotChars;
+    }
+
+    /** Total size of all snapshots as received, before decompression. */
+    public long snapshotWireBytes() {
+        return snapshotWireBytes;
+    }
+
+    /** Round-trip, clock offset and input latency measurements. */
+    public LinkStats linkStats() {
+        return link;
+    }
+
+    /** Total time the listener spent decoding snapshots, including decompression. */
+    public long decodeNanos() {
+        return decodeNanos;
+    }
+
+    /** Events waiting for the render thread, plus one if a fresh snapshot is pending. */
+    public int queueDepth() {
+        return events.size() + (snapshots.hasFresh() ? 1 : 0);
+    }
+
     @Override
     public void onOpen(WebSocket webSocket) {
         webSocket.request(1);
@@ -78,63 +250,201 @@ public final class MultiplayerClient implements WebSocket.Listener {
 
     @Override
     public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
-        partial.append(data);
+        appendText(data);
         if (last) {
-            String payload = partial.toString();
-            partial.setLength(0);
-            handleMessage(payload);
+            handleMessage(System.nanoTime(), textLength);
+            textLength = 0;
         }
         webSocket.request(1);
         return CompletableFuture.completedFuture(null);
     }
 
-    private void handleMessage(String payload) {
+    /** Compressed snapshots; see {@link SnapshotCodec}. */
+    @Override
+    public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+        int len = data.remaining();
+        if (binaryLength + len > binary.length) {
+            binary = Arrays.copyOf(binary, Math.max(binary.length * 2, binaryLength + len));
+        }
+        data.get(binary, binaryLength, len);
+        binaryLength += len;
+        if (last) {
+            long start = System.nanoTime();
+            try {
+                int n = codec.decompress(binary, 0, binaryLength);
+                if (text.length < n) {
+                    text = new char[Math.max(text.length * 2, n)];
+                }
+                CharBuffer chars = CharBuffer.wrap(text);
+                utf8.reset();
+                utf8.decode(ByteBuffer.wrap(codec.output(), 0, n), chars, true);
+                textLength = chars.position();
+                handleMessage(start, binaryLength);
+            } catch (DataFormatException ex) {
+                events.add(Event.error("Failed to decompress message", ex));
+            }
+            textLength = 0;
+            binaryLength = 0;
+        }
+        webSocket.request(1);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void appendText(CharSequence data) {
+        int len = data.length();
+        if (textLength + len > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + len));
+        }
+        for (int i = 0; i < len; i++) {
+            text[textLength + i] = data.charAt(i);
+        }
+        textLength += len;
+    }
+
+    private void handleMessage(long start, int wireSize) {
         try {
-            JsonNode node = mapper.readTree(payload);
+            if (decoder.decodeState(text, textLength, snapshots.writeBuffer())) {
+                lastTick = snapshots.writeBuffer().tick;
+                if (ack >= 0) {
+                    snapshots.writeBuffer().ack = ack;
+                    link.acked(ack, start);
+                }
+                decodeNanos += System.nanoTime() - start;
+                snapshotChars += textLength;
+                snapshotWireBytes += wireSize;
+                snapshotsReceived++;
+                if (snapshots.publish()) {
+                    droppedSnapshots.incrementAndGet();
+                }
+                return;
+            }
+            JsonNode node = mapper.readTree(new String(text, 0, textLength));
             String type = Optional.ofNullable(node.path("type").asText(null)).orElse("");
             switch (type) {
-                case "welcome" -> events.add(Event.welcome(mapper.treeToValue(node, Welcome.class)));
-                case "state" -> events.add(Event.state(mapper.treeToValue(node, Snapshot.class)));
-                case "pong" -> { /* ignore */ }
+                case "welcome" -> {
+                    Welcome welcome = mapper.treeToValue(node, Welcome.class);
+                    resumeToken = welcome.resumeToken;
+                    reconnectAttempts.set(0);
+                    events.add(Event.welcome(welcome));
+                }
+                case "ack" -> ack = node.path("seq").asLong();
+                case "meta" -> applyMeta(node);
+                case "leaderboard" -> events.add(Event.leaderboard(readLeaderboard(node.path("entries"))));
+                case "pong" -> {
+                    if (node.has("t")) {
+                        link.pong(node.path("t").asLong(), node.path("now").asLong());
+                    }
+                }
                 default -> events.add(Event.info("Unknown message: " + type));
             }
-        } catch (JsonProcessingException ex) {
+        } catch (IOException ex) {
             events.add(Event.error("Failed to parse message", ex));
         }
     }
 
+    /**
+     * Applies player joined, renamed and left events to the handle table; a {@code reset} message
+     * carries the whole table. Left is applied first so a handle can be reused within one batch.
+     */
+    private void applyMeta(JsonNode node) {
+        if (node.path("reset").asBoolean(false)) {
+            playerTable.clear();
+        }
+        for (JsonNode handle : node.path("left")) {
+            playerTable.remove(handle.asInt());
+        }
+        for (JsonNode joined : node.path("joined")) {
+            PlayerInfo info = new PlayerInfo(joined.path("handle").asInt(), joined.path("id").asText(null),
+                    joined.path("name").asText(""), joined.path("color").asText(null));
+            playerTable.put(info.handle, info);
+        }
+        for (JsonNode renamed : node.path("renamed")) {
+            PlayerInfo info = playerTable.get(renamed.path("handle").asInt());
+            if (info != null) {
+                info.name = renamed.path("name").asText(info.name);
+            }
+        }
+    }
+
+    private static List<LeaderboardEntry> readLeaderboard(JsonNode entries) {
+        List<LeaderboardEntry> list = new ArrayList<>();
+        for (JsonNode e : entries) {
+            LeaderboardEntry entry = new LeaderboardEntry();
+            entry.name = e.path("name").asText("");
+            entry.score = e.path("score").asInt();
+            list.add(entry);
+        }
+        return list;
+    }
+
     @Override
     public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
-        events.add(Event.closed(statusCode, reason));
+        if (closing || statusCode == WebSocket.NORMAL_CLOSURE || resumeToken == null) {
+            events.add(Event.closed(statusCode, reason));
+        } else {
+            connectionLost(reason);
+        }
         return CompletableFuture.completedFuture(null);
     }
 
+    /** The socket is already closed when this is called. */
     @Override
     public void onError(WebSocket webSocket, Throwable error) {
         events.add(Event.error("WebSocket error", error));
+        if (!closing && resumeToken != null) {
+            connectionLost(error.getMessage());
+        }
     }
 
     private void sendJoin() {
         ObjectNode node = mapper.createObjectNode();
         node.put("type", "join");
         node.put("name", playerName);
+        node.put("compression", SnapshotCodec.NAME);
+        if (resumeToken != null) {
+            node.put("resume", resumeToken);
+            node.put("lastTick", lastTick);
+        }
         sendAsync(node);
     }
 
-    private void sendAsync(ObjectNode node) {
+    private synchronized void sendAsync(ObjectNode node) {
         WebSocket ws = socket;
         if (ws == null) {
             return;
         }
         try {
             String json = mapper.writeValueAsString(node);
-            ws.sendText(json, true);
+            // Pings go out from a timer thread and turns from the render thread, so sends are chained.
+            lastSend = lastSend.handle((ignored, err) -> null).thenCompose(ignored -> ws.sendText(json, true));
         } catch (JsonProcessingException ignored) {
         }
     }
 
     public enum Direction {
-        UP, DOWN, LEFT, RIGHT;
+        UP(0, 1), DOWN(0, -1), LEFT(-1, 0), RIGHT(1, 0);
+
+        private final int dx;
+        private final int dy;
+
+        Direction(int dx, int dy) {
+            this.dx = dx;
+            this.dy = dy;
+        }
+
+        public int dx() { return dx; }
+        public int dy() { return dy; }
+
+        public boolean isOpposite(Direction other) {
+            return other != null && dx + other.dx == 0 && dy + other.dy == 0;
+        }
+
+        public static Direction fromDelta(int dx, int dy) {
+            for (Direction d : values()) {
+                if (d.dx == dx && d.dy == dy) return d;
+            }
+            return null;
+        }
 
         public static Direction fromInput(String value) {
             if (value == null) return null;
@@ -146,42 +456,107 @@ public final class MultiplayerClient implements WebSocket.Listener {
         }
     }
 
-    public sealed interface Event permits Event.Connected, Event.State, Event.WelcomeEvent, Event.Error, Event.Info, Event.Closed {
+    /** Ordered control events; state snapshots are delivered separately through {@link #pollSnapshot()}. */
+    public sealed interface Event permits Event.Connected, Event.WelcomeEvent, Event.Error, Event.Info, Event.Closed,
+            Event.Leaderboard, Event.Reconnecting {
         static Event connected() { return new Connected(); }
-        static Event state(Snapshot snapshot) { return new State(snapshot); }
         static Event welcome(Welcome welcome) { return new WelcomeEvent(welcome); }
         static Event error(String message, Throwable throwable) { return new Error(message, throwable); }
         static Event info(String message) { return new Info(message); }
+        static Event leaderboard(List<LeaderboardEntry> entries) { return new Leaderboard(entries); }
         static Event closed(int status, String reason) { return new Closed(status, reason); }
+        static Event reconnecting(int attempt, long delayMillis) { return new Reconnecting(attempt, delayMillis); }
 
         record Connected() implements Event {}
-        record State(Snapshot snapshot) implements Event {}
         record WelcomeEvent(Welcome welcome) implements Event {}
         record Error(String message, Throwable cause) implements Event {}
         record Info(String message) implements Event {}
         record Closed(int status, String reason) implements Event {}
+        record Leaderboard(List<LeaderboardEntry> entries) implements Event {}
+        record Reconnecting(int attempt, long delayMillis) implements Event {}
     }
 
+    /** Pooled snapshot; arrays grow as needed and are reused for every decode. */
     public static final class Snapshot {
-        public String type;
         public long tick;
-        public java.util.List<Player> players;
-        public java.util.List<Point> foods;
-        public java.util.List<LeaderboardEntry> leaderboard;
+        /** Sequence number of this client's last input the server has consumed; -1 if not known. */
+        public long ack = -1;
+        public int playerCount;
+        public Player[] players = new Player[0];
+        public int foodCount;
+        public int[] foodX = new int[64];
+        public int[] foodY = new int[64];
+
+        Player nextPlayer() {
+            if (playerCount == players.length) {
+                players = Arrays.copyOf(players, Math.max(8, players.length * 2));
+            }
+            if (players[playerCount] == null) {
+                players[playerCount] = new Player();
+            }
+            return players[playerCount++];
+        }
     }
 
+    /**
+     * Player body as flat coordinate arrays; only the first {@code length} entries are valid. The
+     * id, name and color come from the handle table and are shared with it, not copied. A
+     * {@code summary} is a snake too far away to be sent in full: its points are just the head
+     * and tail, with its real length in {@code bodyLength} and its extent in the box fields.
+     */
     public static final class Player {
+        public int handle;
         public String id;
         public String name;
         public String color;
         public boolean alive;
         public int score;
-        public java.util.List<Point> segments;
+        public int length;
+        public int[] xs = new int[16];
+        public int[] ys = new int[16];
+        public boolean summary;
+        public int bodyLength;
+        public int minX;
+        public int minY;
+        public int maxX;
+        public int maxY;
+
+        void copyFrom(Player other) {
+            handle = other.handle;
+            id = other.id;
+            name = other.name;
+            color = other.color;
+            alive = other.alive;
+            score = other.score;
+            if (xs.length < other.length) {
+                xs = new int[other.xs.length];
+                ys = new int[other.ys.length];
+            }
+            System.arraycopy(other.xs, 0, xs, 0, other.length);
+            System.arraycopy(other.ys, 0, ys, 0, other.length);
+            length = other.length;
+            summary = other.summary;
+            bodyLength = other.bodyLength;
+            minX = other.minX;
+            minY = other.minY;
+            maxX = other.maxX;
+            maxY = other.maxY;
+        }
     }
 
-    public static final class Point {
-        public int x;
-        public int y;
+    /** Per-player data that is sent once, when the player joins, instead of in every snapshot. */
+    public static final class PlayerInfo {
+        public final int handle;
+        public final String id;
+        public String name;
+        public final String color;
+
+        PlayerInfo(int handle, String id, String name, String color) {
+            this.handle = handle;
+            this.id = id;
+            this.name = name;
+            this.color = color;
+        }
     }
 
     public static final class LeaderboardEntry {
@@ -196,5 +571,6 @@ public final class MultiplayerClient implements WebSocket.Listener {
         public int cols;
         public int rows;
         public long tickMillis;
+        public String resumeToken;
     }
 }
@@ -7,11 +7,8 @@ import com.badlogic.gdx.ScreenAdapter;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.InputMultiplexer;
 import com.badlogic.gdx.scenes.scene2d.Stage;
@@ -21,16 +18,26 @@ import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
-import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
+import com.badlogic.gdx.utils.ObjectFloatMap;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import java.util.List;
 import java.util.Objects;
+import org.example.snake.GraphicsQuality;
 import org.example.snake.MainGame;
+import org.example.snake.game.GridLayer;
+import org.example.snake.ui.UiAtlas;
 import org.example.snake.multiplayer.MultiplayerClient.Event;
 
 public class MultiplayerGameScreen extends ScreenAdapter {
     private static final int DEFAULT_COLS = 120;
     private static final int DEFAULT_ROWS = 120;
+    private static final float HEAD_MARK_COLOR = Color.WHITE.toFloatBits();
+    private static final float FALLBACK_COLOR = Color.GREEN.toFloatBits();
+    private static final int GRID_CHUNK_CELLS = 16;
+    /** Extra cells around the view: bodies are blended up to a cell away from the snapshot. */
+    private static final int CULL_MARGIN_CELLS = 2;
+    private static final float MINIMAP_SIZE = 180f;
+    private static final Color MINIMAP_FRAME = new Color(1f, 1f, 1f, 0.7f);
 
     private final MainGame game;
     private final String playerName;
@@ -38,17 +45,21 @@ public class MultiplayerGameScreen extends ScreenAdapter {
 
     private MultiplayerClient client;
     private MultiplayerClient.Snapshot snapshot;
+    private final SnapshotInterpolator interpolator = new SnapshotInterpolator();
+    private final SnapshotGrid index = new SnapshotGrid();
+    private final Minimap minimap = new Minimap();
+    private Drawable minimapFrame;
 
     private OrthographicCamera camera;
-    private ShapeRenderer shapes;
+    private GridLayer grid;
+    private SnakeMeshRenderer meshRenderer;
+    private final SnakeMeshBuilder meshBuilder = new SnakeMeshBuilder();
+    private final ObjectFloatMap<String> colorBits = new ObjectFloatMap<>();
     private final SpriteBatch batch;
     private final BitmapFont font;
 
     private Stage uiStage;
     private Skin uiSkin;
-    private Texture buttonUpTex;
-    private Texture buttonOverTex;
-    private Texture buttonDownTex;
     private Label statusLabel;
     private Label leaderboardLabel;
 
@@ -57,6 +68,10 @@ public class MultiplayerGameScreen extends ScreenAdapter {
     private int cellSize = 24;
     private float worldWidth;
     private float worldHeight;
+    private int viewMinCol;
+    private int viewMinRow;
+    private int viewMaxCol;
+    private int viewMaxRow;
 
     private MultiplayerClient.Direction pendingDirection = MultiplayerClient.Direction.RIGHT;
     private String playerId;
@@ -73,10 +88,11 @@ public class MultiplayerGameScreen extends ScreenAdapter {
     @Override
     public void show() {
         camera = new OrthographicCamera();
-        shapes = new ShapeRenderer();
+        meshRenderer = new SnakeMeshRenderer();
         uiStage = new Stage(new ScreenViewport(), batch);
         uiSkin = new Skin();
-        uiSkin.add("default-font", font, BitmapFont.class);
+        minimapFrame = game.atlas.solid(MINIMAP_FRAME);
+        minimap.resize(worldCols, worldRows);
         createUi();
 
         client = new MultiplayerClient(serverUri, playerName);
@@ -96,15 +112,7 @@ public class MultiplayerGameScreen extends ScreenAdapter {
     }
 
     private void createUi() {
-        buttonUpTex = makeRoundRectTex(200, 48, new Color(0.85f, 0.2f, 0.3f, 1f));
-        buttonOverTex = makeRoundRectTex(200, 48, new Color(1.0f, 0.3f, 0.4f, 1f));
-        buttonDownTex = makeRoundRectTex(200, 48, new Color(0.65f, 0.1f, 0.2f, 1f));
-        Drawable up = new TextureRegionDrawable(buttonUpTex);
-        Drawable over = new TextureRegionDrawable(buttonOverTex);
-        Drawable down = new TextureRegionDrawable(buttonDownTex);
-        TextButton.TextButtonStyle style = new TextButton.TextButtonStyle(up, down, up, font);
-        style.over = over;
-        uiSkin.add("default", style);
+        uiSkin.add("default", game.atlas.buttonStyle(UiAtlas.Palette.MULTIPLAYER, font));
 
         Label.LabelStyle labelStyle = new Label.LabelStyle(font, Color.WHITE);
         statusLabel = new Label("Connecting...", labelStyle);
@@ -154,8 +162,9 @@ public class MultiplayerGameScreen extends ScreenAdapter {
         };
         if (newDir != null && newDir != pendingDirection) {
             pendingDirection = newDir;
-            if (client != null) {
-                client.sendDirection(newDir);
+            long seq = client != null ? client.sendDirection(newDir) : 0;
+            if (!newDir.isOpposite(interpolator.localHeading())) {
+                interpolator.predict(newDir, seq);
             }
         }
     }
@@ -163,18 +172,20 @@ public class MultiplayerGameScreen extends ScreenAdapter {
     @Override
     public void render(float delta) {
         pollEvents();
+        interpolator.advance(delta);
         updateCameraTarget();
 
         Gdx.gl.glClearColor(0.05f, 0.05f, 0.08f, 1f);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
         camera.update();
-        shapes.setProjectionMatrix(camera.combined);
         batch.setProjectionMatrix(camera.combined);
 
         drawWorld();
+        drawMinimap();
         uiStage.act(delta);
         uiStage.draw();
+        game.perf.render(delta, client);
     }
 
     private void pollEvents() {
@@ -182,7 +193,6 @@ public class MultiplayerGameScreen extends ScreenAdapter {
             return;
         }
         Event event;
-        boolean leaderboardChanged = false;
         while ((event = client.pollEvent()) != null) {
             if (event instanceof Event.Connected) {
                 statusMessage = "Connected, joining lobby";
@@ -191,34 +201,45 @@ public class MultiplayerGameScreen extends ScreenAdapter {
                 playerId = welcomeMsg.id;
                 worldCols = welcomeMsg.cols;
                 worldRows = welcomeMsg.rows;
+                interpolator.tickMillis(welcomeMsg.tickMillis);
+                interpolator.localId(playerId);
                 statusMessage = "Waiting for game state";
                 updateWorldSize();
-            } else if (event instanceof Event.State stateEvent) {
-                snapshot = stateEvent.snapshot();
-                leaderboardChanged = true;
-                statusMessage = "Playing as " + playerName;
+                rebuildGrid();
+                minimap.resize(worldCols, worldRows);
             } else if (event instanceof Event.Error error) {
                 statusMessage = error.message();
             } else if (event instanceof Event.Closed closedEvent) {
                 statusMessage = "Connection closed" + (closedEvent.reason() != null ? (": " + closedEvent.reason()) : "");
+            } else if (event instanceof Event.Reconnecting reconnecting) {
+                statusMessage = "Connection lost, reconnecting (attempt " + reconnecting.attempt() + ")";
             } else if (event instanceof Event.Info info) {
                 statusMessage = info.message();
+            } else if (event instanceof Event.Leaderboard leaderboard) {
+                leaderboardLabel.setText(buildLeaderboardText(leaderboard.entries()));
             }
         }
-        statusLabel.setText(statusMessage);
-        if (leaderboardChanged) {
-            leaderboardLabel.setText(buildLeaderboardText());
+        if (client.linkStats().sampled()) {
+            interpolator.jitter(client.linkStats().jitterMillis());
+        }
+        MultiplayerClient.Snapshot latest = client.pollSnapshot();
+        if (latest != null) {
+            snapshot = latest;
+            index.rebuild(snapshot, worldCols, worldRows);
+            minimap.update(snapshot, playerId);
+            interpolator.push(snapshot);
+            statusMessage = "Playing as " + playerName;
         }
+        statusLabel.setText(statusMessage);
     }
 
     private void updateCameraTarget() {
         MultiplayerClient.Player player = findSelf();
-        if (player == null || player.segments == null || player.segments.isEmpty()) {
+        if (player == null || interpolator.sample(player.id, 0) == 0) {
             return;
         }
-        MultiplayerClient.Point head = player.segments.get(0);
-        float targetX = head.x * cellSize + cellSize / 2f;
-        float targetY = head.y * cellSize + cellSize / 2f;
+        float targetX = interpolator.x(0) * cellSize + cellSize / 2f;
+        float targetY = interpolator.y(0) * cellSize + cellSize / 2f;
         float halfW = camera.viewportWidth / 2f;
         float halfH = camera.viewportHeight / 2f;
         targetX = MathUtils.clamp(targetX, halfW, worldWidth - halfW);
@@ -230,11 +251,41 @@ public class MultiplayerGameScreen extends ScreenAdapter {
         if (snapshot == null) {
             return;
         }
-        shapes.begin(ShapeRenderer.ShapeType.Filled);
-        drawGrid();
+        GraphicsQuality quality = game.quality.current();
+        meshBuilder.discSegments(quality.circleSegments);
+        meshBuilder.joints(quality.segmentJoints);
+        updateView();
+        batch.begin();
+        if (quality.gridDetail) {
+            drawGrid();
+        }
         drawFoods();
+        batch.end();
         drawPlayers();
-        shapes.end();
+    }
+
+    /** Top-right overview with the camera's view outlined; drawn in screen coordinates. */
+    private void drawMinimap() {
+        if (snapshot == null) {
+            return;
+        }
+        float size = Math.min(MINIMAP_SIZE, Gdx.graphics.getHeight() * 0.3f);
+        float x = Gdx.graphics.getWidth() - size - 16f;
+        float y = Gdx.graphics.getHeight() - size - 16f;
+        float sx = size / worldCols;
+        float sy = size / worldRows;
+        float viewX = x + (camera.position.x - camera.viewportWidth / 2f) / cellSize * sx;
+        float viewY = y + (camera.position.y - camera.viewportHeight / 2f) / cellSize * sy;
+        float viewW = camera.viewportWidth / cellSize * sx;
+        float viewH = camera.viewportHeight / cellSize * sy;
+        batch.setProjectionMatrix(uiStage.getCamera().combined);
+        batch.begin();
+        minimap.draw(batch, x, y, size, size);
+        minimapFrame.draw(batch, viewX, viewY, viewW, 1f);
+        minimapFrame.draw(batch, viewX, viewY + viewH - 1f, viewW, 1f);
+        minimapFrame.draw(batch, viewX, viewY, 1f, viewH);
+        minimapFrame.draw(batch, viewX + viewW - 1f, viewY, 1f, viewH);
+        batch.end();
     }
 
     private void drawGrid() {
@@ -242,90 +293,99 @@ public class MultiplayerGameScreen extends ScreenAdapter {
         int maxCol = Math.min(worldCols - 1, (int) ((camera.position.x + camera.viewportWidth / 2f) / cellSize) + 1);
         int minRow = Math.max(0, (int) ((camera.position.y - camera.viewportHeight / 2f) / cellSize) - 1);
         int maxRow = Math.min(worldRows - 1, (int) ((camera.position.y + camera.viewportHeight / 2f) / cellSize) + 1);
-        Color even = new Color(0.1f, 0.12f, 0.16f, 1f);
-        Color odd = new Color(0.09f, 0.1f, 0.14f, 1f);
-        for (int y = minRow; y <= maxRow; y++) {
-            for (int x = minCol; x <= maxCol; x++) {
-                shapes.setColor(((x + y) & 1) == 0 ? even : odd);
-                shapes.rect(x * cellSize, y * cellSize, cellSize, cellSize);
-            }
+        grid.draw(batch, 0, 0, minCol, minRow, maxCol, maxRow);
+    }
+
+    /** Cell rectangle under the camera plus {@link #CULL_MARGIN_CELLS}, for the spatial queries. */
+    private void updateView() {
+        viewMinCol = (int) Math.floor((camera.position.x - camera.viewportWidth / 2f) / cellSize) - CULL_MARGIN_CELLS;
+        viewMaxCol = (int) Math.floor((camera.position.x + camera.viewportWidth / 2f) / cellSize) + CULL_MARGIN_CELLS;
+        viewMinRow = (int) Math.floor((camera.position.y - camera.viewportHeight / 2f) / cellSize) - CULL_MARGIN_CELLS;
+        viewMaxRow = (int) Math.floor((camera.position.y + camera.viewportHeight / 2f) / cellSize) + CULL_MARGIN_CELLS;
+    }
+
+    private void rebuildGrid() {
+        if (grid != null) {
+            grid.dispose();
         }
+        grid = new GridLayer(worldCols, worldRows, GRID_CHUNK_CELLS,
+                new Color(0.1f, 0.12f, 0.16f, 1f), new Color(0.09f, 0.1f, 0.14f, 1f));
+        grid.build(cellSize);
     }
 
     private void drawFoods() {
-        if (snapshot.foods == null) return;
-        shapes.setColor(Color.SCARLET);
+        batch.setColor(Color.SCARLET);
         float radius = cellSize * 0.35f;
-        for (MultiplayerClient.Point f : snapshot.foods) {
-            float cx = f.x * cellSize + cellSize / 2f;
-            float cy = f.y * cellSize + cellSize / 2f;
-            shapes.circle(cx, cy, radius, 12);
+        int visible = index.queryFoods(viewMinCol, viewMinRow, viewMaxCol, viewMaxRow);
+        for (int k = 0; k < visible; k++) {
+            int i = index.hit(k);
+            float cx = snapshot.foodX[i] * cellSize + cellSize / 2f;
+            float cy = snapshot.foodY[i] * cellSize + cellSize / 2f;
+            meshRenderer.drawFood(batch, cx, cy, radius);
         }
+        batch.setColor(Color.WHITE);
     }
 
     private void drawPlayers() {
-        if (snapshot.players == null) return;
-        for (MultiplayerClient.Player player : snapshot.players) {
-            if (player.segments == null || player.segments.isEmpty()) {
+        meshBuilder.reset();
+        float bodyRadius = cellSize * 0.4f;
+        float half = cellSize / 2f;
+        int visible = index.queryPlayers(viewMinCol, viewMinRow, viewMaxCol, viewMaxRow);
+        for (int k = 0; k < visible; k++) {
+            int p = index.hit(k);
+            MultiplayerClient.Player player = snapshot.players[p];
+            int n = interpolator.sample(player.id, p);
+            if (n == 0) {
                 continue;
             }
-            Color color = parseColor(player.color, Color.GREEN);
-            boolean isSelf = Objects.equals(player.id, playerId);
-            float bodyRadius = cellSize * 0.4f;
-            shapes.setColor(color);
-            MultiplayerClient.Point prev = null;
-            for (MultiplayerClient.Point point : player.segments) {
-                float cx = point.x * cellSize + cellSize / 2f;
-                float cy = point.y * cellSize + cellSize / 2f;
-                shapes.circle(cx, cy, bodyRadius, 20);
-                if (prev != null) {
-                    float px = prev.x * cellSize + cellSize / 2f;
-                    float py = prev.y * cellSize + cellSize / 2f;
-                    shapes.rectLine(px, py, cx, cy, bodyRadius * 2f);
-                }
-                prev = point;
-            }
-            if (isSelf) {
-                shapes.setColor(Color.WHITE);
-                MultiplayerClient.Point head = player.segments.get(0);
-                float hx = head.x * cellSize + cellSize / 2f;
-                float hy = head.y * cellSize + cellSize / 2f;
-                shapes.circle(hx, hy, bodyRadius * 0.55f, 16);
+            meshBuilder.addBody(interpolator.xs(), interpolator.ys(), n, cellSize, half, bodyRadius, colorBits(player.color));
+            if (Objects.equals(player.id, playerId)) {
+                meshBuilder.addDisc(interpolator.x(0) * cellSize + half, interpolator.y(0) * cellSize + half,
+                        bodyRadius * 0.55f, HEAD_MARK_COLOR);
             }
         }
+        meshRenderer.draw(meshBuilder, camera.combined);
     }
 
     private MultiplayerClient.Player findSelf() {
-        if (snapshot == null || snapshot.players == null || playerId == null) {
+        if (snapshot == null || playerId == null) {
             return null;
         }
-        for (MultiplayerClient.Player player : snapshot.players) {
-            if (Objects.equals(player.id, playerId)) {
-                return player;
+        for (int p = 0; p < snapshot.playerCount; p++) {
+            if (Objects.equals(snapshot.players[p].id, playerId)) {
+                return snapshot.players[p];
             }
         }
         return null;
     }
 
-    private String buildLeaderboardText() {
-        if (snapshot == null || snapshot.leaderboard == null || snapshot.leaderboard.isEmpty()) {
+    private String buildLeaderboardText(List<MultiplayerClient.LeaderboardEntry> entries) {
+        if (entries.isEmpty()) {
             return "Leaderboard\n(no scores yet)";
         }
         StringBuilder sb = new StringBuilder("Leaderboard\n");
         int rank = 1;
-        for (MultiplayerClient.LeaderboardEntry entry : snapshot.leaderboard) {
+        for (MultiplayerClient.LeaderboardEntry entry : entries) {
             sb.append(rank++).append(". ").append(entry.name);
             sb.append(" - ").append(entry.score).append('\n');
         }
         return sb.toString();
     }
 
-    private Color parseColor(String hex, Color fallback) {
-        try {
-            return hex != null ? Color.valueOf(hex) : fallback;
-        } catch (IllegalArgumentException ex) {
-            return fallback;
+    private float colorBits(String hex) {
+        if (hex == null) {
+            return FALLBACK_COLOR;
+        }
+        float bits = colorBits.get(hex, Float.NaN);
+        if (Float.isNaN(bits)) {
+            try {
+                bits = Color.valueOf(hex).toFloatBits();
+            } catch (IllegalArgumentException ex) {
+                bits = FALLBACK_COLOR;
+            }
+            colorBits.put(hex, bits);
         }
+        return bits;
     }
 
     @Override
@@ -333,6 +393,11 @@ public class MultiplayerGameScreen extends ScreenAdapter {
         updateCellSize(width, height);
         camera.setToOrtho(false, width, height);
         updateWorldSize();
+        if (grid == null) {
+            rebuildGrid();
+        } else {
+            grid.build(cellSize);
+        }
         if (uiStage != null) {
             uiStage.getViewport().update(width, height, true);
         }
@@ -354,34 +419,10 @@ public class MultiplayerGameScreen extends ScreenAdapter {
         if (client != null) {
             client.close();
         }
-        if (shapes != null) shapes.dispose();
+        if (grid != null) grid.dispose();
+        if (meshRenderer != null) meshRenderer.dispose();
+        minimap.dispose();
         if (uiStage != null) uiStage.dispose();
         if (uiSkin != null) uiSkin.dispose();
-        if (buttonUpTex != null) buttonUpTex.dispose();
-        if (buttonOverTex != null) buttonOverTex.dispose();
-        if (buttonDownTex != null) buttonDownTex.dispose();
-    }
-
-    private Texture makeRoundRectTex(int width, int height, Color color) {
-        Pixmap pm = new Pixmap(width, height, Pixmap.Format.RGBA8888);
-        int r = 12;
-        pm.setColor(0, 0, 0, 0);
-        pm.fill();
-        pm.setColor(color);
-        pm.fillRectangle(r, 0, width - 2 * r, height);
-        pm.fillRectangle(0, r, width, height - 2 * r);
-        for (int dy = -r; dy <= r; dy++) {
-            for (int dx = -r; dx <= r; dx++) {
-                if (dx * dx + dy * dy <= r * r) {
-                    pm.drawPixel(r + dx, r + dy);
-                    pm.drawPixel(width - r - 1 + dx, r + dy);
-                    pm.drawPixel(r + dx, height - r - 1 + dy);
-                    pm.drawPixel(width - r - 1 + dx, height - r - 1 + dy);
-                }
-            }
-        }
-        Texture texture = new Texture(pm);
-        pm.dispose();
-        return texture;
     }
 }
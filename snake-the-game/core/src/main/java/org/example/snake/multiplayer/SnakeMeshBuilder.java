@@ -0,0 +1,141 @@
+package org.example.snake.multiplayer;
+
+import com.badlogic.gdx.math.MathUtils;
+import java.util.Arrays;
+
+/**
+ * Builds snake bodies as plain triangles into one reusable vertex array (x, y, packed color).
+ * Straight runs of segments become a single quad and only the joints between runs and the two
+ * end caps get a disc, so a body costs a handful of vertices per turn instead of a full circle
+ * per segment. No GL calls are made here; {@link SnakeMeshRenderer} uploads the result.
+ */
+final class SnakeMeshBuilder {
+    static final int FLOATS_PER_VERTEX = 3;
+    private static final float COLLINEAR_EPSILON = 1e-3f;
+
+    private float[] vertices = new float[3 * 1024];
+    private int floatCount;
+    private int discSegments;
+    private boolean joints = true;
+    private float[] cos;
+    private float[] sin;
+
+    SnakeMeshBuilder() {
+        discSegments(10);
+    }
+
+    /** Number of triangles used for each joint, cap and disc. */
+    void discSegments(int segments) {
+        segments = Math.max(3, segments);
+        if (segments == discSegments) {
+            return;
+        }
+        discSegments = segments;
+        cos = new float[segments + 1];
+        sin = new float[segments + 1];
+        for (int i = 0; i <= segments; i++) {
+            float angle = MathUtils.PI2 * i / segments;
+            cos[i] = MathUtils.cos(angle);
+            sin[i] = MathUtils.sin(angle);
+        }
+    }
+
+    /** Whether turns get a disc; without them corners show a notch but cost nothing. */
+    void joints(boolean joints) {
+        this.joints = joints;
+    }
+
+    void reset() {
+        floatCount = 0;
+    }
+
+    float[] vertices() { return vertices; }
+    int floatCount() { return floatCount; }
+    int vertexCount() { return floatCount / FLOATS_PER_VERTEX; }
+
+    /**
+     * Adds a capsule strip through the given points. Coordinates are transformed with
+     * {@code x * scale + offset} so callers can pass cell-space buffers directly.
+     */
+    void addBody(float[] xs, float[] ys, int count, float scale, float offset, float radius, float color) {
+        if (count <= 0) {
+            return;
+        }
+        float startX = xs[0] * scale + offset;
+        float startY = ys[0] * scale + offset;
+        addDisc(startX, startY, radius, color);
+        float prevX = startX;
+        float prevY = startY;
+        float dirX = 0f;
+        float dirY = 0f;
+        for (int i = 1; i < count; i++) {
+            float x = xs[i] * scale + offset;
+            float y = ys[i] * scale + offset;
+            float dx = x - prevX;
+            float dy = y - prevY;
+            float len = (float) Math.sqrt(dx * dx + dy * dy);
+            if (len < COLLINEAR_EPSILON) {
+                continue;
+            }
+            dx /= len;
+            dy /= len;
+            boolean turned = (dirX != 0f || dirY != 0f)
+                    && (Math.abs(dirX * dy - dirY * dx) > COLLINEAR_EPSILON || dirX * dx + dirY * dy < 0f);
+            if (turned) {
+                addQuad(startX, startY, prevX, prevY, radius, color);
+                if (joints) {
+                    addDisc(prevX, prevY, radius, color);
+                }
+                startX = prevX;
+                startY = prevY;
+            }
+            dirX = dx;
+            dirY = dy;
+            prevX = x;
+            prevY = y;
+        }
+        if (prevX != startX || prevY != startY) {
+            addQuad(startX, startY, prevX, prevY, radius, color);
+            addDisc(prevX, prevY, radius, color);
+        }
+    }
+
+    void addDisc(float cx, float cy, float radius, float color) {
+        ensureCapacity(discSegments * 3 * FLOATS_PER_VERTEX);
+        for (int i = 0; i < discSegments; i++) {
+            put(cx, cy, color);
+            put(cx + cos[i] * radius, cy + sin[i] * radius, color);
+            put(cx + cos[i + 1] * radius, cy + sin[i + 1] * radius, color);
+        }
+    }
+
+    private void addQuad(float ax, float ay, float bx, float by, float radius, float color) {
+        float dx = bx - ax;
+        float dy = by - ay;
+        float len = (float) Math.sqrt(dx * dx + dy * dy);
+        if (len < COLLINEAR_EPSILON) {
+            return;
+        }
+        float nx = -dy / len * radius;
+        float ny = dx / len * radius;
+        ensureCapacity(6 * FLOATS_PER_VERTEX);
+        put(ax + nx, ay + ny, color);
+        put(ax - nx, ay - ny, color);
+        put(bx - nx, by - ny, color);
+        put(ax + nx, ay + ny, color);
+        put(bx - nx, by - ny, color);
+        put(bx + nx, by + ny, color);
+    }
+
+    private void put(float x, float y, float color) {
+        vertices[floatCount++] = x;
+        vertices[floatCount++] = y;
+        vertices[floatCount++] = color;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (floatCount + extra > vertices.length) {
+            vertices = Arrays.copyOf(vertices, Math.max(vertices.length * 2, floatCount + extra));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.snake.multiplayer;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ImmediateModeRenderer20;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Draws everything a {@link SnakeMeshBuilder} produced with one vertex upload and one draw call,
+ * and food as tinted sprites from a small generated disc texture so a whole frame of food goes
+ * out in a single SpriteBatch flush.
+ */
+final class SnakeMeshRenderer implements Disposable {
+    private static final int FOOD_TEXTURE_SIZE = 32;
+
+    private final ShaderProgram shader = ImmediateModeRenderer20.createDefaultShader(false, true, 0);
+    private final Texture foodTexture;
+    private Mesh mesh;
+    private int capacity;
+
+    SnakeMeshRenderer() {
+        Pixmap pm = new Pixmap(FOOD_TEXTURE_SIZE, FOOD_TEXTURE_SIZE, Pixmap.Format.RGBA8888);
+        pm.setColor(0, 0, 0, 0);
+        pm.fill();
+        pm.setColor(Color.WHITE);
+        pm.fillCircle(FOOD_TEXTURE_SIZE / 2, FOOD_TEXTURE_SIZE / 2, FOOD_TEXTURE_SIZE / 2 - 1);
+        foodTexture = new Texture(pm);
+        foodTexture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        pm.dispose();
+        ensureCapacity(8 * 1024);
+    }
+
+    void draw(SnakeMeshBuilder builder, Matrix4 projection) {
+        int vertexCount = builder.vertexCount();
+        if (vertexCount == 0) {
+            return;
+        }
+        ensureCapacity(vertexCount);
+        mesh.setVertices(builder.vertices(), 0, builder.floatCount());
+        shader.bind();
+        shader.setUniformMatrix("u_projModelView", projection);
+        mesh.render(shader, GL20.GL_TRIANGLES, 0, vertexCount);
+    }
+
+    /** Queues one food sprite; call between {@code batch.begin()} and {@code batch.end()}. */
+    void drawFood(SpriteBatch batch, float cx, float cy, float radius) {
+        batch.draw(foodTexture, cx - radius, cy - radius, radius * 2f, radius * 2f);
+    }
+
+    private void ensureCapacity(int vertices) {
+        if (mesh != null && vertices <= capacity) {
+            return;
+        }
+        if (mesh != null) {
+            mesh.dispose();
+        }
+        capacity = Math.max(vertices, capacity * 2);
+        mesh = new Mesh(false, capacity, 0,
+                new VertexAttribute(VertexAttributes.Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+                new VertexAttribute(VertexAttributes.Usage.ColorPacked, 4, ShaderProgram.COLOR_ATTRIBUTE));
+    }
+
+    @Override
+    public void dispose() {
+        if (mesh != null) mesh.dispose();
+        shader.dispose();
+        foodTexture.dispose();
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.snake.multiplayer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-slot, latest-wins mailbox that hands pooled snapshots from the network thread to the
+ * render thread without locks. The writer always fills its own buffer and swaps it with the ready slot; the reader swaps the
+ * ready slot with the buffer it holds. A third buffer keeps the two sides from ever touching the
+ * same arrays, so nothing is copied and nothing is allocated after warm-up.
+ */
+final class SnapshotBuffers {
+    private static final int INDEX_MASK = 0b11;
+    private static final int FRESH = 0b100;
+
+    private final MultiplayerClient.Snapshot[] buffers = {
+            new MultiplayerClient.Snapshot(),
+            new MultiplayerClient.Snapshot(),
+            new MultiplayerClient.Snapshot()
+    };
+    private final AtomicInteger ready = new AtomicInteger(1);
+    private int writeIndex = 0;
+    private int readIndex = 2;
+
+    /** Buffer the network thread may fill; only valid until the next {@link #publish()}. */
+    MultiplayerClient.Snapshot writeBuffer() {
+        return buffers[writeIndex];
+    }
+
+    /**
+     * Makes the write buffer the latest snapshot.
+     *
+     * @return true if an earlier snapshot was replaced before the reader picked it up
+     */
+    boolean publish() {
+        int previous = ready.getAndSet(writeIndex | FRESH);
+        writeIndex = previous & INDEX_MASK;
+        return (previous & FRESH) != 0;
+    }
+
+    boolean hasFresh() {
+        return (ready.get() & FRESH) != 0;
+    }
+
+    /**
+     * Takes the newest published snapshot, or returns null if nothing was published since the
+     * last call. A returned buffer stays untouched until the next non-null result.
+     */
+    MultiplayerClient.Snapshot acquire() {
+        if ((ready.get() & FRESH) == 0) {
+            return null;
+        }
+        int previous = ready.getAndSet(readIndex);
+        readIndex = previous & INDEX_MASK;
+        return buffers[readIndex];
+    }
+}
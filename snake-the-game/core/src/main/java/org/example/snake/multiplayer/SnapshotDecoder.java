@@ -0,0 +1,243 @@
+package org.example.snake.multiplayer;
+
+import com.badlogic.gdx.utils.IntMap;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Streams {@code state} messages straight into a pooled {@link MultiplayerClient.Snapshot}
+ * without building a JSON tree or per-segment objects. Players arrive as numeric handles and
+ * their id, name and color are looked up in the client's handle table, so no strings are read.
+ * Summaries of distant snakes only come every few ticks; they are remembered here and copied
+ * into the snapshots in between, which the server marks {@code "kept":true}.
+ */
+final class SnapshotDecoder {
+    private static final SerializableString X = new SerializedString("x");
+    private static final SerializableString Y = new SerializedString("y");
+
+    private final JsonFactory factory;
+    private final IntMap<MultiplayerClient.PlayerInfo> players;
+    private MultiplayerClient.Player[] kept = new MultiplayerClient.Player[0];
+    private int keptCount;
+
+    SnapshotDecoder(JsonFactory factory, IntMap<MultiplayerClient.PlayerInfo> players) {
+        this.factory = factory;
+        this.players = players;
+    }
+
+    /**
+     * Decodes the message if it is a state snapshot whose {@code type} field comes first.
+     *
+     * @return true if the message was decoded into {@code into}, false if the caller should
+     * fall back to generic parsing
+     */
+    boolean decodeState(char[] text, int length, MultiplayerClient.Snapshot into) throws IOException {
+        try (JsonParser p = factory.createParser(text, 0, length)) {
+            if (p.nextToken() != JsonToken.START_OBJECT
+                    || p.nextToken() != JsonToken.FIELD_NAME
+                    || !"type".equals(p.currentName())
+                    || p.nextToken() != JsonToken.VALUE_STRING
+                    || !textEquals(p, "state")) {
+                return false;
+            }
+            into.playerCount = 0;
+            into.foodCount = 0;
+            // Acks come in their own message; the caller fills this in if it has one.
+            into.ack = -1;
+            boolean keep = false;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                if (value == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "tick" -> into.tick = p.getLongValue();
+                    case "players" -> readPlayers(p, into);
+                    case "foods" -> readFoods(p, into);
+                    case "kept" -> keep = value == JsonToken.VALUE_TRUE;
+                    default -> p.skipChildren();
+                }
+            }
+            if (keep) {
+                addKept(into);
+            } else {
+                keepSummaries(into);
+            }
+            return true;
+        }
+    }
+
+    private void readPlayers(JsonParser p, MultiplayerClient.Snapshot into) throws IOException {
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            MultiplayerClient.Player player = into.nextPlayer();
+            player.length = 0;
+            player.handle = 0;
+            player.summary = false;
+            player.bodyLength = -1;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                switch (field) {
+                    case "handle" -> player.handle = p.getIntValue();
+                    case "alive" -> player.alive = value == JsonToken.VALUE_TRUE;
+                    case "score" -> player.score = p.getIntValue();
+                    case "length" -> player.bodyLength = p.getIntValue();
+                    case "segments" -> readSegments(p, player);
+                    case "box" -> readBox(p, player);
+                    default -> p.skipChildren();
+                }
+            }
+            if (!player.summary) {
+                player.bodyLength = player.length;
+            }
+            // A handle the table does not know yet leaves the id null, which renders nothing.
+            MultiplayerClient.PlayerInfo info = players.get(player.handle);
+            player.id = info != null ? info.id : null;
+            player.name = info != null ? info.name : null;
+            player.color = info != null ? info.color : null;
+        }
+    }
+
+    private void readSegments(JsonParser p, MultiplayerClient.Player player) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return;
+        }
+        int n = 0;
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            if (n == player.xs.length) {
+                player.xs = Arrays.copyOf(player.xs, n * 2);
+                player.ys = Arrays.copyOf(player.ys, n * 2);
+            }
+            readPoint(p, player.xs, player.ys, n++);
+        }
+        player.length = n;
+    }
+
+    private static void readBox(JsonParser p, MultiplayerClient.Player player) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return;
+        }
+        int i = 0;
+        while (p.nextToken() == JsonToken.VALUE_NUMBER_INT) {
+            int v = p.getIntValue();
+            switch (i++) {
+                case 0 -> player.minX = v;
+                case 1 -> player.minY = v;
+                case 2 -> player.maxX = v;
+                case 3 -> player.maxY = v;
+                default -> { }
+            }
+        }
+        player.summary = i == 4;
+    }
+
+    /** Remembers this snapshot's summaries, replacing the ones from the last full roster. */
+    private void keepSummaries(MultiplayerClient.Snapshot from) {
+        keptCount = 0;
+        for (int i = 0; i < from.playerCount; i++) {
+            MultiplayerClient.Player player = from.players[i];
+            if (!player.summary) {
+                continue;
+            }
+            if (keptCount == kept.length) {
+                kept = Arrays.copyOf(kept, Math.max(8, kept.length * 2));
+            }
+            if (kept[keptCount] == null) {
+                kept[keptCount] = new MultiplayerClient.Player();
+            }
+            kept[keptCount++].copyFrom(player);
+        }
+    }
+
+    /** Appends the remembered summaries of players that are still in the table and not already sent. */
+    private void addKept(MultiplayerClient.Snapshot into) {
+        int sent = into.playerCount;
+        for (int k = 0; k < keptCount; k++) {
+            MultiplayerClient.Player summary = kept[k];
+            MultiplayerClient.PlayerInfo info = players.get(summary.handle);
+            if (info == null || contains(into, sent, summary.handle)) {
+                continue;
+            }
+            MultiplayerClient.Player player = into.nextPlayer();
+            player.copyFrom(summary);
+            // Picks up renames since the summary was sent.
+            player.name = info.name;
+        }
+    }
+
+    private static boolean contains(MultiplayerClient.Snapshot snapshot, int count, int handle) {
+        for (int i = 0; i < count; i++) {
+            if (snapshot.players[i].handle == handle) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void readFoods(JsonParser p, MultiplayerClient.Snapshot into) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return;
+        }
+        int n = 0;
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            if (n == into.foodX.length) {
+                into.foodX = Arrays.copyOf(into.foodX, n * 2);
+                into.foodY = Arrays.copyOf(into.foodY, n * 2);
+            }
+            readPoint(p, into.foodX, into.foodY, n++);
+        }
+        into.foodCount = n;
+    }
+
+    private static void readPoint(JsonParser p, int[] xs, int[] ys, int index) throws IOException {
+        // Points are sent as {"x":..,"y":..}; matching the names against pre-encoded strings
+        // skips the symbol table, and anything else falls through to the generic loop.
+        if (p.nextFieldName(X)) {
+            xs[index] = p.nextIntValue(0);
+            if (p.nextFieldName(Y)) {
+                ys[index] = p.nextIntValue(0);
+                if (p.nextToken() == JsonToken.END_OBJECT) {
+                    return;
+                }
+            }
+        } else if (p.currentToken() == JsonToken.END_OBJECT) {
+            return;
+        }
+        while (p.currentToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            if ("x".equals(field)) {
+                xs[index] = p.getIntValue();
+            } else if ("y".equals(field)) {
+                ys[index] = p.getIntValue();
+            } else {
+                p.skipChildren();
+            }
+            p.nextToken();
+        }
+    }
+
+    private static boolean textEquals(JsonParser p, String expected) throws IOException {
+        int len = p.getTextLength();
+        if (len != expected.length()) {
+            return false;
+        }
+        char[] chars = p.getTextCharacters();
+        int off = p.getTextOffset();
+        for (int i = 0; i < len; i++) {
+            if (chars[off + i] != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,211 @@
+package org.example.snake.multiplayer;
+
+import java.util.Arrays;
+
+/**
+ * Coarse spatial index over one snapshot, rebuilt whenever a new snapshot arrives. The world is
+ * split into square buckets of {@link #BUCKET_CELLS} cells; each food sits in the bucket of its
+ * cell and each player in every bucket its bounding box touches. Buckets are stored as one flat
+ * array of item indices plus start offsets (counting sort), so rebuilding allocates nothing once
+ * the arrays have grown and a query only walks the buckets under the camera.
+ */
+final class SnapshotGrid {
+    static final int BUCKET_CELLS = 8;
+
+    private int bucketCols = 1;
+    private int bucketRows = 1;
+
+    private int[] foodStart = new int[2];
+    private int[] foodItems = new int[64];
+    private int[] playerStart = new int[2];
+    private int[] playerItems = new int[64];
+    private int[] cursor = new int[1];
+
+    private int playerCount;
+    private int[] minX = new int[16];
+    private int[] minY = new int[16];
+    private int[] maxX = new int[16];
+    private int[] maxY = new int[16];
+
+    private int[] seen = new int[16];
+    private int stamp;
+    private int[] hits = new int[64];
+
+    /** Re-indexes {@code snapshot}; coordinates outside the world are clamped to the edge buckets. */
+    void rebuild(MultiplayerClient.Snapshot snapshot, int worldCols, int worldRows) {
+        bucketCols = Math.max(1, (worldCols + BUCKET_CELLS - 1) / BUCKET_CELLS);
+        bucketRows = Math.max(1, (worldRows + BUCKET_CELLS - 1) / BUCKET_CELLS);
+        int buckets = bucketCols * bucketRows;
+        if (foodStart.length < buckets + 1) {
+            foodStart = new int[buckets + 1];
+            playerStart = new int[buckets + 1];
+            cursor = new int[buckets];
+        }
+        indexFoods(snapshot, buckets);
+        indexPlayers(snapshot, buckets);
+    }
+
+    private void indexFoods(MultiplayerClient.Snapshot snapshot, int buckets) {
+        Arrays.fill(foodStart, 0, buckets + 1, 0);
+        for (int i = 0; i < snapshot.foodCount; i++) {
+            foodStart[bucket(snapshot.foodX[i], snapshot.foodY[i]) + 1]++;
+        }
+        for (int b = 0; b < buckets; b++) {
+            foodStart[b + 1] += foodStart[b];
+            cursor[b] = foodStart[b];
+        }
+        if (foodItems.length < snapshot.foodCount) {
+            foodItems = new int[Math.max(snapshot.foodCount, foodItems.length * 2)];
+        }
+        for (int i = 0; i < snapshot.foodCount; i++) {
+            foodItems[cursor[bucket(snapshot.foodX[i], snapshot.foodY[i])]++] = i;
+        }
+    }
+
+    private void indexPlayers(MultiplayerClient.Snapshot snapshot, int buckets) {
+        playerCount = snapshot.playerCount;
+        if (minX.length < playerCount) {
+            int size = Math.max(playerCount, minX.length * 2);
+            minX = new int[size];
+            minY = new int[size];
+            maxX = new int[size];
+            maxY = new int[size];
+            seen = new int[size];
+            stamp = 0;
+        }
+        Arrays.fill(playerStart, 0, buckets + 1, 0);
+        int entries = 0;
+        for (int p = 0; p < playerCount; p++) {
+            MultiplayerClient.Player player = snapshot.players[p];
+            if (!bounds(p, player)) {
+                continue;
+            }
+            for (int by = bucketY(minY[p]); by <= bucketY(maxY[p]); by++) {
+                for (int bx = bucketX(minX[p]); bx <= bucketX(maxX[p]); bx++) {
+                    playerStart[by * bucketCols + bx + 1]++;
+                    entries++;
+                }
+            }
+        }
+        for (int b = 0; b < buckets; b++) {
+            playerStart[b + 1] += playerStart[b];
+            cursor[b] = playerStart[b];
+        }
+        if (playerItems.length < entries) {
+            playerItems = new int[Math.max(entries, playerItems.length * 2)];
+        }
+        for (int p = 0; p < playerCount; p++) {
+            if (snapshot.players[p].length == 0) {
+                continue;
+            }
+            for (int by = bucketY(minY[p]); by <= bucketY(maxY[p]); by++) {
+                for (int bx = bucketX(minX[p]); bx <= bucketX(maxX[p]); bx++) {
+                    playerItems[cursor[by * bucketCols + bx]++] = p;
+                }
+            }
+        }
+    }
+
+    /** Fills the bounding box of player {@code p}, as sent for a summary; false for a snake with no segments. */
+    private boolean bounds(int p, MultiplayerClient.Player player) {
+        int n = player.length;
+        if (n == 0) {
+            return false;
+        }
+        if (player.summary) {
+            minX[p] = player.minX;
+            minY[p] = player.minY;
+            maxX[p] = player.maxX;
+            maxY[p] = player.maxY;
+            return true;
+        }
+        int x0 = Integer.MAX_VALUE, y0 = Integer.MAX_VALUE, x1 = Integer.MIN_VALUE, y1 = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            x0 = Math.min(x0, player.xs[i]);
+            x1 = Math.max(x1, player.xs[i]);
+            y0 = Math.min(y0, player.ys[i]);
+            y1 = Math.max(y1, player.ys[i]);
+        }
+        minX[p] = x0;
+        minY[p] = y0;
+        maxX[p] = x1;
+        maxY[p] = y1;
+        return true;
+    }
+
+    /**
+     * Collects the foods in buckets overlapping the cell rectangle (inclusive). Results are read
+     * with {@link #hit(int)} and stay valid until the next query.
+     *
+     * @return number of hits
+     */
+    int queryFoods(int minCol, int minRow, int maxCol, int maxRow) {
+        int count = 0;
+        for (int by = bucketY(minRow); by <= bucketY(maxRow); by++) {
+            for (int bx = bucketX(minCol); bx <= bucketX(maxCol); bx++) {
+                int b = by * bucketCols + bx;
+                int n = foodStart[b + 1] - foodStart[b];
+                ensureHits(count + n);
+                System.arraycopy(foodItems, foodStart[b], hits, count, n);
+                count += n;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Collects the players whose bounding box overlaps the cell rectangle (inclusive), once each and
+     * in snapshot order so overlapping snakes keep a stable draw order as the camera moves.
+     *
+     * @return number of hits
+     */
+    int queryPlayers(int minCol, int minRow, int maxCol, int maxRow) {
+        if (++stamp == 0) {
+            Arrays.fill(seen, 0);
+            stamp = 1;
+        }
+        int count = 0;
+        for (int by = bucketY(minRow); by <= bucketY(maxRow); by++) {
+            for (int bx = bucketX(minCol); bx <= bucketX(maxCol); bx++) {
+                int b = by * bucketCols + bx;
+                for (int k = playerStart[b]; k < playerStart[b + 1]; k++) {
+                    int p = playerItems[k];
+                    if (seen[p] == stamp) {
+                        continue;
+                    }
+                    seen[p] = stamp;
+                    if (maxX[p] < minCol || minX[p] > maxCol || maxY[p] < minRow || minY[p] > maxRow) {
+                        continue;
+                    }
+                    ensureHits(count + 1);
+                    hits[count++] = p;
+                }
+            }
+        }
+        Arrays.sort(hits, 0, count);
+        return count;
+    }
+
+    /** Index into the snapshot's food or player arrays, for the last query. */
+    int hit(int i) {
+        return hits[i];
+    }
+
+    private int bucket(int x, int y) {
+        return bucketY(y) * bucketCols + bucketX(x);
+    }
+
+    private int bucketX(int x) {
+        return Math.min(bucketCols - 1, Math.max(0, x / BUCKET_CELLS));
+    }
+
+    private int bucketY(int y) {
+        return Math.min(bucketRows - 1, Math.max(0, y / BUCKET_CELLS));
+    }
+
+    private void ensureHits(int n) {
+        if (hits.length < n) {
+            hits = Arrays.copyOf(hits, Math.max(n, hits.length * 2));
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package org.example.snake.multiplayer;
+
+import com.badlogic.gdx.math.MathUtils;
+import java.util.Arrays;
+
+/**
+ * Buffers the last few server snapshots and blends snake bodies between them on a clock that
+ * trails the server by the interpolation delay. The local snake is extrapolated from the newest
+ * snapshot instead, so a turn shows up before the server has confirmed it.
+ */
+final class SnapshotInterpolator {
+    private static final int HISTORY = 3;
+    private static final int PREDICTION_TIMEOUT_SNAPSHOTS = 2;
+    /** Turns wait in the server's input queue for up to one tick each, so acked turns get longer. */
+    private static final int ACKED_PREDICTION_TIMEOUT_SNAPSHOTS = 6;
+
+    private final Frame[] frames = new Frame[HISTORY];
+    private int frameCount;
+    private int newest = -1;
+
+    private double tickSeconds = 0.12;
+    private double interpolationDelay = 0.12;
+    private double jitterSeconds;
+    private double clock;
+    private double clockOffset;
+    private double latestArrival;
+    private boolean clockSynced;
+
+    private String localId;
+    private MultiplayerClient.Direction predicted;
+    private long predictedSeq;
+    private int predictedWaited;
+
+    private float[] outX = new float[64];
+    private float[] outY = new float[64];
+
+    SnapshotInterpolator() {
+        for (int i = 0; i < HISTORY; i++) {
+            frames[i] = new Frame();
+        }
+    }
+
+    void tickMillis(long millis) {
+        tickSeconds = Math.max(0.01, millis / 1000.0);
+        updateDelay();
+    }
+
+    /**
+     * Renders further behind the newest snapshot on a jittery link, so late snapshots still find
+     * a frame to blend towards. Capped at one extra tick, which the frame history can cover.
+     */
+    void jitter(double millis) {
+        jitterSeconds = Math.max(0, millis / 1000.0);
+        updateDelay();
+    }
+
+    private void updateDelay() {
+        interpolationDelay = tickSeconds + Math.min(tickSeconds, 2 * jitterSeconds);
+    }
+
+    void localId(String id) {
+        this.localId = id;
+    }
+
+    void advance(float delta) {
+        clock += delta;
+    }
+
+    void push(MultiplayerClient.Snapshot snapshot) {
+        if (snapshot == null) {
+            return;
+        }
+        if (newest >= 0 && snapshot.tick <= frames[newest].tick) {
+            return;
+        }
+        newest = (newest + 1) % HISTORY;
+        frameCount = Math.min(HISTORY, frameCount + 1);
+        Frame frame = frames[newest];
+        frame.copyFrom(snapshot);
+        latestArrival = clock;
+
+        double offset = frame.tick * tickSeconds - clock;
+        if (!clockSynced || Math.abs(offset - clockOffset) > tickSeconds * 3) {
+            clockOffset = offset;
+            clockSynced = true;
+        } else {
+            clockOffset += (offset - clockOffset) * 0.1;
+        }
+        reconcile(frame, snapshot.ack);
+    }
+
+    /** Records a turn the local player just requested so it can be shown ahead of the server. */
+    void predict(MultiplayerClient.Direction direction, long seq) {
+        predicted = direction;
+        predictedSeq = seq;
+        predictedWaited = 0;
+    }
+
+    /** Returns the direction the local snake is currently heading in, or null if unknown. */
+    MultiplayerClient.Direction localHeading() {
+        if (newest < 0 || localId == null) {
+            return null;
+        }
+        Frame frame = frames[newest];
+        return frame.heading(frame.find(localId, 0));
+    }
+
+    float x(int i) { return outX[i]; }
+    float y(int i) { return outY[i]; }
+    float[] xs() { return outX; }
+    float[] ys() { return outY; }
+
+    /**
+     * Writes the blended body of the given player, in cell units, into the output buffers.
+     *
+     * @param hint index of the player in the newest snapshot, used to speed up the lookup
+     * @return number of segments written
+     */
+    int sample(String id, int hint) {
+        if (newest < 0 || id == null) {
+            return 0;
+        }
+        if (id.equals(localId)) {
+            return sampleLocal(hint);
+        }
+        double renderTime = clock + clockOffset - interpolationDelay;
+        Frame b = frames[newest];
+        Frame a = null;
+        for (int k = 1; k < frameCount; k++) {
+            Frame candidate = frames[Math.floorMod(newest - k, HISTORY)];
+            if (candidate.tick * tickSeconds <= renderTime || k == frameCount - 1) {
+                a = candidate;
+                break;
+            }
+            b = candidate;
+        }
+        int bi = b.find(id, hint);
+        if (bi < 0) {
+            return 0;
+        }
+        int ai = a != null ? a.find(id, hint) : -1;
+        float alpha = 1f;
+        if (ai >= 0 && b.tick > a.tick) {
+            alpha = (float) MathUtils.clamp((renderTime - a.tick * tickSeconds) / ((b.tick - a.tick) * tickSeconds), 0.0, 1.0);
+        }
+        return blend(a, ai, b, bi, alpha);
+    }
+
+    private int sampleLocal(int hint) {
+        Frame frame = frames[newest];
+        int idx = frame.find(localId, hint);
+        if (idx < 0) {
+            return 0;
+        }
+        int n = frame.lengths[idx];
+        ensureCapacity(n);
+        if (n == 0) {
+            return 0;
+        }
+        int[] xs = frame.xs[idx];
+        int[] ys = frame.ys[idx];
+        MultiplayerClient.Direction dir = predicted != null ? predicted : frame.heading(idx);
+        float alpha = (float) MathUtils.clamp((clock - latestArrival) / tickSeconds, 0.0, 1.0);
+        if (dir == null) {
+            alpha = 0f;
+        }
+        for (int i = 0; i < n; i++) {
+            float nextX = i == 0 ? xs[0] + (dir != null ? dir.dx() : 0) : xs[i - 1];
+            float nextY = i == 0 ? ys[0] + (dir != null ? dir.dy() : 0) : ys[i - 1];
+            outX[i] = xs[i] + (nextX - xs[i]) * alpha;
+            outY[i] = ys[i] + (nextY - ys[i]) * alpha;
+        }
+        return n;
+    }
+
+    private int blend(Frame a, int ai, Frame b, int bi, float alpha) {
+        int n = b.lengths[bi];
+        ensureCapacity(n);
+        int[] bx = b.xs[bi];
+        int[] by = b.ys[bi];
+        boolean canBlend = ai >= 0 && a.lengths[ai] > 0 && n > 0
+                && Math.abs(a.xs[ai][0] - bx[0]) + Math.abs(a.ys[ai][0] - by[0]) <= (int) (b.tick - a.tick);
+        for (int i = 0; i < n; i++) {
+            if (canBlend && i < a.lengths[ai]) {
+                outX[i] = a.xs[ai][i] + (bx[i] - a.xs[ai][i]) * alpha;
+                outY[i] = a.ys[ai][i] + (by[i] - a.ys[ai][i]) * alpha;
+            } else {
+                outX[i] = bx[i];
+                outY[i] = by[i];
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Drops the predicted turn once the server has caught up: its ack covers the turn's sequence
+     * number, so the snapshot already shows it applied or rejected. Without a sequence number
+     * the prediction ends when the heading matches or after a short timeout.
+     */
+    private void reconcile(Frame frame, long ack) {
+        if (predicted == null || localId == null) {
+            return;
+        }
+        MultiplayerClient.Direction heading = frame.heading(frame.find(localId, 0));
+        int timeout = predictedSeq > 0 ? ACKED_PREDICTION_TIMEOUT_SNAPSHOTS : PREDICTION_TIMEOUT_SNAPSHOTS;
+        if ((predictedSeq > 0 && ack >= predictedSeq) || heading == predicted || ++predictedWaited >= timeout) {
+            predicted = null;
+            predictedWaited = 0;
+        }
+    }
+
+    private void ensureCapacity(int n) {
+        if (outX.length < n) {
+            int size = Math.max(n, outX.length * 2);
+            outX = new float[size];
+            outY = new float[size];
+        }
+    }
+
+    private static final class Frame {
+        long tick;
+        int players;
+        String[] ids = new String[16];
+        int[] lengths = new int[16];
+        int[][] xs = new int[16][];
+        int[][] ys = new int[16][];
+
+        void copyFrom(MultiplayerClient.Snapshot snapshot) {
+            tick = snapshot.tick;
+            players = 0;
+            for (int k = 0; k < snapshot.playerCount; k++) {
+                MultiplayerClient.Player player = snapshot.players[k];
+                int p = players++;
+                if (p == ids.length) {
+                    grow();
+                }
+                ids[p] = player.id;
+                int n = player.length;
+                if (xs[p] == null || xs[p].length < n) {
+                    xs[p] = new int[Math.max(16, n * 2)];
+                    ys[p] = new int[xs[p].length];
+                }
+                System.arraycopy(player.xs, 0, xs[p], 0, n);
+                System.arraycopy(player.ys, 0, ys[p], 0, n);
+                lengths[p] = n;
+            }
+        }
+
+        int find(String id, int hint) {
+            if (id == null) {
+                return -1;
+            }
+            if (hint >= 0 && hint < players && id.equals(ids[hint])) {
+                return hint;
+            }
+            for (int i = 0; i < players; i++) {
+                if (id.equals(ids[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        MultiplayerClient.Direction heading(int idx) {
+            if (idx < 0 || lengths[idx] < 2) {
+                return null;
+            }
+            return MultiplayerClient.Direction.fromDelta(xs[idx][0] - xs[idx][1], ys[idx][0] - ys[idx][1]);
+        }
+
+        private void grow() {
+            int size = ids.length * 2;
+            ids = Arrays.copyOf(ids, size);
+            lengths = Arrays.copyOf(lengths, size);
+            xs = Arrays.copyOf(xs, size);
+            ys = Arrays.copyOf(ys, size);
+        }
+    }
+}
@@ -4,17 +4,12 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.ScreenAdapter;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
-import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
-import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 
@@ -22,13 +17,13 @@ import java.util.List;
 
 import org.example.snake.HighScores;
 import org.example.snake.MainGame;
+import org.example.snake.game.Level;
 
 public class HighScoresScreen extends ScreenAdapter {
     private final MainGame game;
     private Stage stage;
     private Skin skin;
-    private Texture buttonUpTex, buttonOverTex, buttonDownTex;
-    private ShapeRenderer shapes;
+    private Level level = Level.LEVEL_1;
 
     public HighScoresScreen(MainGame game) {
         this.game = game;
@@ -36,32 +31,22 @@ public class HighScoresScreen extends ScreenAdapter {
 
     @Override
     public void show() {
-        setupStageAndSkin();
-        createButtonTextures();
-        buildFooterButtons();
+        if (stage == null) {
+            setupStageAndSkin();
+            createButtonStyle();
+            buildFooterButtons();
+        }
         Gdx.input.setInputProcessor(stage);
     }
 
     private void setupStageAndSkin() {
         stage = new Stage(new ScreenViewport(), game.batch);
-        shapes = new ShapeRenderer();
 
         skin = new Skin();
-        skin.add("default-font", game.font, com.badlogic.gdx.graphics.g2d.BitmapFont.class);
     }
 
-    private void createButtonTextures() {
-        buttonUpTex = makeRoundRectTex(300, 40, new Color(0.85f, 0.7f, 0.15f, 1f));
-        buttonOverTex = makeRoundRectTex(300, 40, new Color(0.95f, 0.8f, 0.25f, 1f));
-        buttonDownTex = makeRoundRectTex(300, 40, new Color(0.75f, 0.6f, 0.12f, 1f));
-
-        Drawable up = new TextureRegionDrawable(buttonUpTex);
-        Drawable over = new TextureRegionDrawable(buttonOverTex);
-        Drawable down = new TextureRegionDrawable(buttonDownTex);
-
-        TextButton.TextButtonStyle style = new TextButton.TextButtonStyle(up, down, up, game.font);
-        style.over = over;
-        skin.add("default", style);
+    private void createButtonStyle() {
+        skin.add("default", game.atlas.buttonStyle(UiAtlas.Palette.SCORES, game.font));
     }
 
     private void buildFooterButtons() {
@@ -70,6 +55,7 @@ public class HighScoresScreen extends ScreenAdapter {
         table.bottom().pad(12);
 
         TextButton back = new TextButton("Back", skin);
+        TextButton next = new TextButton("Level", skin);
         TextButton clear = new TextButton("Clear", skin);
 
         back.addListener(new ClickListener() {
@@ -78,14 +64,21 @@ public class HighScoresScreen extends ScreenAdapter {
                 game.showMenu();
             }
         });
+        next.addListener(new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                cycleLevel(1);
+            }
+        });
         clear.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                HighScores.clearAll();
+                HighScores.clear(level);
             }
         });
 
         table.add(back).width(140).height(40).padRight(8);
+        table.add(next).width(140).height(40).pad(0, 8, 0, 8);
         table.add(clear).width(140).height(40).padLeft(8);
 
         stage.addActor(table);
@@ -96,11 +89,10 @@ public class HighScoresScreen extends ScreenAdapter {
         if (handleBackKeys()) return;
 
         ScreenUtils.clear(0.07f, 0.07f, 0.1f, 1f);
-        drawMeadowBackground();
-
-        List<Integer> list = HighScores.top();
-        drawMedals(list);
+        List<Integer> list = HighScores.top(level);
         game.batch.begin();
+        game.atlas.drawMeadow(game.batch, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        drawMedals(list);
         drawScoresList(list);
         game.batch.end();
 
@@ -113,11 +105,21 @@ public class HighScoresScreen extends ScreenAdapter {
             game.showMenu();
             return true;
         }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.LEFT)) {
+            cycleLevel(-1);
+        } else if (Gdx.input.isKeyJustPressed(Input.Keys.RIGHT)) {
+            cycleLevel(1);
+        }
         return false;
     }
 
+    private void cycleLevel(int step) {
+        Level[] levels = Level.values();
+        level = levels[Math.floorMod(level.ordinal() + step, levels.length)];
+    }
+
     private void drawScoresList(List<Integer> list) {
-        game.font.draw(game.batch, "High Scores (Top 10)", 20, Gdx.graphics.getHeight() - 20);
+        game.font.draw(game.batch, "High Scores - " + level.title, 20, Gdx.graphics.getHeight() - 20);
 
         int startY = Gdx.graphics.getHeight() - 80;
 
@@ -133,7 +135,7 @@ public class HighScoresScreen extends ScreenAdapter {
         }
 
         game.font.setColor(Color.WHITE);
-        game.font.draw(game.batch, "ENTER/ESC to back or use Back; Clear to reset", 20, 64);
+        game.font.draw(game.batch, "LEFT/RIGHT or Level to switch; ENTER/ESC to go back; Clear resets this level", 20, 64);
     }
 
     @Override
@@ -141,63 +143,12 @@ public class HighScoresScreen extends ScreenAdapter {
         if (stage != null) stage.getViewport().update(width, height, true);
     }
 
-    private void drawMeadowBackground() {
-        int w = Gdx.graphics.getWidth();
-        int h = Gdx.graphics.getHeight();
-        shapes.begin(ShapeRenderer.ShapeType.Filled);
-        for (int y = 0; y < h; y += 16) {
-            float t = (float) y / h;
-            shapes.setColor(new Color(0.08f + 0.12f * t, 0.35f + 0.45f * t, 0.08f, 1f));
-            shapes.rect(0, y, w, 16);
-        }
-        shapes.end();
-    }
-
-    private void drawMedal(int index, int x, int y) {
-        Color c;
-        if (index == 0) c = new Color(1f, 0.84f, 0f, 1f);
-        else if (index == 1) c = new Color(0.75f, 0.75f, 0.75f, 1f);
-        else if (index == 2) c = new Color(0.8f, 0.5f, 0.2f, 1f);
-        else c = new Color(0.2f, 0.6f, 1f, 1f);
-        shapes.setColor(c);
-        shapes.rect(x, y, 20, 20);
-        shapes.setColor(Color.DARK_GRAY);
-        shapes.rect(x + 4, y + 20, 4, 8);
-        shapes.rect(x + 12, y + 20, 4, 8);
-    }
-
     private void drawMedals(List<Integer> list) {
-        if (list == null || list.isEmpty()) return;
         int startY = Gdx.graphics.getHeight() - 80;
-        shapes.begin(ShapeRenderer.ShapeType.Filled);
         for (int i = 0; i < list.size(); i++) {
             float y = startY - i * 26;
-            drawMedal(i, 40, (int) y - 18);
-        }
-        shapes.end();
-    }
-
-    private Texture makeRoundRectTex(int width, int height, Color color) {
-        Pixmap pm = new Pixmap(width, height, Pixmap.Format.RGBA8888);
-        int r = 10;
-        pm.setColor(0, 0, 0, 0);
-        pm.fill();
-        pm.setColor(color);
-        pm.fillRectangle(r, 0, width - 2 * r, height);
-        pm.fillRectangle(0, r, width, height - 2 * r);
-        for (int dy = -r; dy <= r; dy++) {
-            for (int dx = -r; dx <= r; dx++) {
-                if (dx * dx + dy * dy <= r * r) {
-                    pm.drawPixel(r + dx, r + dy);
-                    pm.drawPixel(width - r - 1 + dx, r + dy);
-                    pm.drawPixel(r + dx, height - r - 1 + dy);
-                    pm.drawPixel(width - r - 1 + dx, height - r - 1 + dy);
-                }
-            }
+            game.batch.draw(game.atlas.medal(i), 40, y - 18);
         }
-        Texture t = new Texture(pm);
-        pm.dispose();
-        return t;
     }
 
     @Override
@@ -209,9 +160,5 @@ public class HighScoresScreen extends ScreenAdapter {
     public void dispose() {
         if (stage != null) stage.dispose();
         if (skin != null) skin.dispose();
-        if (buttonUpTex != null) buttonUpTex.dispose();
-        if (buttonOverTex != null) buttonOverTex.dispose();
-        if (buttonDownTex != null) buttonDownTex.dispose();
-        if (shapes != null) shapes.dispose();
     }
 }
@@ -4,8 +4,6 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.ScreenAdapter;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Stage;
@@ -14,8 +12,6 @@ import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
-import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
-import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 
@@ -23,10 +19,11 @@ import org.example.snake.MainGame;
 import org.example.snake.game.Level;
 
 public class LevelSelectScreen extends ScreenAdapter {
+    private static final Color CHECKER = new Color(0.0f, 0.1f, 0.0f, 0.12f);
+
     private final MainGame game;
     private Stage stage;
     private Skin skin;
-    private Texture buttonUpTex, buttonOverTex, buttonDownTex;
     private ShapeRenderer shapes;
     private final Level[] levels = Level.values();
     private Level selected;
@@ -38,9 +35,11 @@ public class LevelSelectScreen extends ScreenAdapter {
 
     @Override
     public void show() {
-        setupStageAndSkin();
-        createButtonTextures();
-        buildLevelTable();
+        if (stage == null) {
+            setupStageAndSkin();
+            createButtonStyle();
+            buildLevelTable();
+        }
         Gdx.input.setInputProcessor(stage);
     }
 
@@ -49,21 +48,10 @@ public class LevelSelectScreen extends ScreenAdapter {
         shapes = new ShapeRenderer();
 
         skin = new Skin();
-        skin.add("default-font", game.font, com.badlogic.gdx.graphics.g2d.BitmapFont.class);
     }
 
-    private void createButtonTextures() {
-        buttonUpTex = makeRoundRectTex(360, 44, new Color(0.15f, 0.6f, 0.8f, 1f));
-        buttonOverTex = makeRoundRectTex(360, 44, new Color(0.20f, 0.75f, 0.95f, 1f));
-        buttonDownTex = makeRoundRectTex(360, 44, new Color(0.10f, 0.5f, 0.68f, 1f));
-
-        Drawable up = new TextureRegionDrawable(buttonUpTex);
-        Drawable over = new TextureRegionDrawable(buttonOverTex);
-        Drawable down = new TextureRegionDrawable(buttonDownTex);
-
-        TextButton.TextButtonStyle style = new TextButton.TextButtonStyle(up, down, up, game.font);
-        style.over = over;
-        skin.add("default", style);
+    private void createButtonStyle() {
+        skin.add("default", game.atlas.buttonStyle(UiAtlas.Palette.LEVELS, game.font));
     }
 
     private void buildLevelTable() {
@@ -135,13 +123,11 @@ public class LevelSelectScreen extends ScreenAdapter {
         int w = Gdx.graphics.getWidth();
         int h = Gdx.graphics.getHeight();
         if (shapes == null) return;
+        game.batch.begin();
+        game.atlas.drawMeadow(game.batch, w, h);
+        game.batch.end();
         shapes.begin(ShapeRenderer.ShapeType.Filled);
-        for (int y = 0; y < h; y += 16) {
-            float t = (float) y / h;
-            shapes.setColor(new Color(0.08f + 0.12f * t, 0.35f + 0.45f * t, 0.08f, 1f));
-            shapes.rect(0, y, w, 16);
-        }
-        shapes.setColor(new Color(0.0f, 0.1f, 0.0f, 0.12f));
+        shapes.setColor(CHECKER);
         for (int y = 0; y < h; y += 24) {
             for (int x = 0; x < w; x += 24) {
                 if (((x + y) / 24) % 2 == 0) shapes.rect(x, y, 24, 24);
@@ -150,29 +136,6 @@ public class LevelSelectScreen extends ScreenAdapter {
         shapes.end();
     }
 
-    private Texture makeRoundRectTex(int width, int height, Color color) {
-        Pixmap pm = new Pixmap(width, height, Pixmap.Format.RGBA8888);
-        int r = 10;
-        pm.setColor(0, 0, 0, 0);
-        pm.fill();
-        pm.setColor(color);
-        pm.fillRectangle(r, 0, width - 2 * r, height);
-        pm.fillRectangle(0, r, width, height - 2 * r);
-        for (int dy = -r; dy <= r; dy++) {
-            for (int dx = -r; dx <= r; dx++) {
-                if (dx * dx + dy * dy <= r * r) {
-                    pm.drawPixel(r + dx, r + dy);
-                    pm.drawPixel(width - r - 1 + dx, r + dy);
-                    pm.drawPixel(r + dx, height - r - 1 + dy);
-                    pm.drawPixel(width - r - 1 + dx, height - r - 1 + dy);
-                }
-            }
-        }
-        Texture t = new Texture(pm);
-        pm.dispose();
-        return t;
-    }
-
     private void handleInput() {
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
             game.showMenu();
@@ -188,9 +151,6 @@ public class LevelSelectScreen extends ScreenAdapter {
     public void dispose() {
         if (stage != null) stage.dispose();
         if (skin != null) skin.dispose();
-        if (buttonUpTex != null) buttonUpTex.dispose();
-        if (buttonOverTex != null) buttonOverTex.dispose();
-        if (buttonDownTex != null) buttonDownTex.dispose();
         if (shapes != null) shapes.dispose();
     }
 }
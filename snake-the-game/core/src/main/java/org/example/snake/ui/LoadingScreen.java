@@ -0,0 +1,87 @@
+package org.example.snake.ui;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.ScreenAdapter;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.ScreenUtils;
+
+import java.util.function.Supplier;
+
+import org.example.snake.MainGame;
+
+/**
+ * Progress bar shown while {@link MainGame#assets} streams queued assets in. Each frame gives the
+ * loader a fixed slice of time so the bar keeps moving, logs frames that still run over budget
+ * (usually a large texture upload), and opens the next screen once everything is loaded.
+ */
+public class LoadingScreen extends ScreenAdapter {
+    private static final long FRAME_BUDGET_MS = 16;
+    private static final int LOAD_SLICE_MS = 8;
+    private static final Color BAR_BACK = new Color(0.15f, 0.15f, 0.2f, 1f);
+    private static final Color BAR_FILL = new Color(0.2f, 0.8f, 0.35f, 1f);
+
+    private final MainGame game;
+    private final Supplier<Screen> next;
+    private ShapeRenderer shapes;
+    private BitmapFont font;
+
+    public LoadingScreen(MainGame game, Supplier<Screen> next) {
+        this.game = game;
+        this.next = next;
+    }
+
+    @Override
+    public void show() {
+        shapes = new ShapeRenderer();
+        font = new BitmapFont();
+    }
+
+    @Override
+    public void render(float delta) {
+        long start = System.nanoTime();
+        boolean done = game.assets.update(LOAD_SLICE_MS);
+        float progress = done ? 1f : game.assets.getProgress();
+
+        ScreenUtils.clear(0.07f, 0.07f, 0.1f, 1f);
+        int w = Gdx.graphics.getWidth();
+        int h = Gdx.graphics.getHeight();
+        float barW = Math.min(400, w * 0.6f);
+        float x = (w - barW) / 2f;
+        float y = h / 2f - 8;
+        shapes.begin(ShapeRenderer.ShapeType.Filled);
+        shapes.setColor(BAR_BACK);
+        shapes.rect(x, y, barW, 16);
+        shapes.setColor(BAR_FILL);
+        shapes.rect(x, y, barW * progress, 16);
+        shapes.end();
+        game.batch.begin();
+        font.draw(game.batch, "Loading... " + (int) (progress * 100) + "%", x, y + 40);
+        game.batch.end();
+
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        if (ms > FRAME_BUDGET_MS) {
+            Gdx.app.log("Loading", "Frame took " + ms + " ms (budget " + FRAME_BUDGET_MS + " ms) at "
+                    + (int) (progress * 100) + "%");
+        }
+        if (done) {
+            game.setScreen(next.get());
+        }
+    }
+
+    @Override
+    public void hide() {
+        // Loading screens are single-use; release everything as soon as the next screen takes over.
+        dispose();
+    }
+
+    @Override
+    public void dispose() {
+        if (shapes != null) shapes.dispose();
+        if (font != null) font.dispose();
+        shapes = null;
+        font = null;
+    }
+}
@@ -0,0 +1,216 @@
+package org.example.snake.ui;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+import org.example.snake.multiplayer.LinkStats;
+import org.example.snake.multiplayer.MultiplayerClient;
+
+/**
+ * F3 toggles a corner panel with FPS, a frame-time sparkline, p99 frame time, draw calls and
+ * vertices from {@link GLProfiler}, heap and GC totals from the JMX beans, and, in multiplayer,
+ * snapshot rate, size, decode time and queue depth. The text is rebuilt twice a second into a
+ * reused builder and the sparkline is one ShapeRenderer pass, so leaving it on costs little.
+ * The profiler only wraps GL while the panel is visible, and it, the panel's renderers and the
+ * JMX beans are only set up the first time it is shown, keeping them out of startup.
+ */
+public final class PerfOverlay implements Disposable {
+    private static final int SAMPLES = 240;
+    private static final float REFRESH_SECONDS = 0.5f;
+    private static final float SPARK_HEIGHT = 40f;
+    private static final float SPARK_MAX_MS = 50f;
+    private static final float BUDGET_MS = 1000f / 60f;
+    private static final Color PANEL = new Color(0f, 0f, 0f, 0.6f);
+    private static final Color BAR_OK = new Color(0.3f, 0.85f, 0.4f, 1f);
+    private static final Color BAR_SLOW = new Color(0.95f, 0.3f, 0.25f, 1f);
+    private static final Color BUDGET_LINE = new Color(1f, 1f, 1f, 0.35f);
+
+    private final SpriteBatch batch;
+    private GLProfiler profiler;
+    private ShapeRenderer shapes;
+    private BitmapFont font;
+    private List<GarbageCollectorMXBean> collectors;
+    private final Matrix4 projection = new Matrix4();
+    private final Matrix4 savedProjection = new Matrix4();
+    private final float[] frameMs = new float[SAMPLES];
+    private final float[] sorted = new float[SAMPLES];
+    private final StringBuilder text = new StringBuilder(256);
+    private int next;
+    private int filled;
+    private boolean visible;
+    private float sinceRefresh = REFRESH_SECONDS;
+    private int drawCalls;
+    private int vertices;
+    private long lastSnapshots;
+    private long lastChars;
+    private long lastWireBytes;
+    private long lastDecodeNanos;
+
+    public PerfOverlay(SpriteBatch batch) {
+        this.batch = batch;
+    }
+
+    /** Single player: frame, GL and memory stats only. */
+    public void render(float delta) {
+        render(delta, null);
+    }
+
+    /**
+     * Records the frame and, when visible, draws the panel. Call last in the screen's render so
+     * the GL counters cover the whole frame; the panel's own calls are excluded.
+     */
+    public void render(float delta, MultiplayerClient client) {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            toggle();
+        }
+        frameMs[next] = delta * 1000f;
+        next = (next + 1) % SAMPLES;
+        filled = Math.min(filled + 1, SAMPLES);
+        if (!visible) {
+            return;
+        }
+        drawCalls = profiler.getDrawCalls();
+        vertices = (int) profiler.getVertexCount().total;
+        sinceRefresh += delta;
+        if (sinceRefresh >= REFRESH_SECONDS) {
+            refreshText(client, sinceRefresh);
+            sinceRefresh = 0f;
+        }
+        draw();
+        profiler.reset();
+    }
+
+    private void toggle() {
+        visible = !visible;
+        if (visible) {
+            if (profiler == null) {
+                profiler = new GLProfiler(Gdx.graphics);
+                shapes = new ShapeRenderer();
+                font = new BitmapFont();
+                collectors = ManagementFactory.getGarbageCollectorMXBeans();
+            }
+            profiler.enable();
+            profiler.reset();
+            sinceRefresh = REFRESH_SECONDS;
+        } else {
+            profiler.disable();
+        }
+    }
+
+    private void refreshText(MultiplayerClient client, float seconds) {
+        float fps = Gdx.graphics.getFramesPerSecond();
+        Runtime rt = Runtime.getRuntime();
+        long usedMb = (rt.totalMemory() - rt.freeMemory()) >> 20;
+        long gcCount = 0;
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean gc : collectors) {
+            gcCount += Math.max(0, gc.getCollectionCount());
+            gcMillis += Math.max(0, gc.getCollectionTime());
+        }
+        text.setLength(0);
+        text.append("FPS ").append((int) fps)
+                .append("  p99 ").append(oneDecimal(p99())).append(" ms\n")
+                .append("draws ").append(drawCalls).append("  verts ").append(vertices).append('\n')
+                .append("heap ").append(usedMb).append('/').append(rt.maxMemory() >> 20).append(" MB")
+                .append("  GC ").append(gcCount).append(" / ").append(gcMillis).append(" ms");
+        if (client != null) {
+            long snapshots = client.snapshotsReceived();
+            long chars = client.snapshotChars();
+            long wire = client.snapshotWireBytes();
+            long decode = client.decodeNanos();
+            long count = snapshots - lastSnapshots;
+            text.append("\nsnap ").append(oneDecimal(count / seconds)).append("/s");
+            if (count > 0) {
+                text.append("  ").append((wire - lastWireBytes) / count).append(" B (")
+                        .append((chars - lastChars) / count).append(" raw)")
+                        .append("  decode ").append(oneDecimal((decode - lastDecodeNanos) / 1000f / count)).append(" us");
+            }
+            text.append("  queue ").append(client.queueDepth())
+                    .append("  dropped ").append(client.droppedSnapshots());
+            LinkStats link = client.linkStats();
+            if (link.sampled()) {
+                double offset = link.clockOffsetMillis();
+                text.append("\nrtt ").append(Math.round(link.rttMillis()))
+                        .append(" ms +/-").append(Math.round(link.jitterMillis()))
+                        .append("  clock ").append(offset >= 0 ? "+" : "").append(Math.round(offset)).append(" ms")
+                        .append("  input ").append(Math.round(link.inputLatencyMillis())).append(" ms");
+            }
+            lastSnapshots = snapshots;
+            lastChars = chars;
+            lastWireBytes = wire;
+            lastDecodeNanos = decode;
+        }
+    }
+
+    private float p99() {
+        if (filled == 0) {
+            return 0f;
+        }
+        System.arraycopy(frameMs, 0, sorted, 0, filled);
+        Arrays.sort(sorted, 0, filled);
+        return sorted[(int) Math.ceil(0.99 * filled) - 1];
+    }
+
+    private void draw() {
+        int w = Gdx.graphics.getWidth();
+        int h = Gdx.graphics.getHeight();
+        projection.setToOrtho2D(0, 0, w, h);
+        float panelW = SAMPLES + 16f;
+        float panelH = SPARK_HEIGHT + 100f;
+        float left = 8f;
+        float bottom = h - panelH - 8f;
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        shapes.setProjectionMatrix(projection);
+        shapes.begin(ShapeRenderer.ShapeType.Filled);
+        shapes.setColor(PANEL);
+        shapes.rect(left, bottom, panelW, panelH);
+        float sparkX = left + 8f;
+        float sparkY = bottom + 8f;
+        for (int i = 0; i < filled; i++) {
+            float ms = frameMs[(next - filled + i + SAMPLES) % SAMPLES];
+            shapes.setColor(ms > BUDGET_MS ? BAR_SLOW : BAR_OK);
+            shapes.rect(sparkX + i, sparkY, 1f, Math.min(ms, SPARK_MAX_MS) / SPARK_MAX_MS * SPARK_HEIGHT);
+        }
+        shapes.setColor(BUDGET_LINE);
+        shapes.rect(sparkX, sparkY + BUDGET_MS / SPARK_MAX_MS * SPARK_HEIGHT, SAMPLES, 1f);
+        shapes.end();
+
+        savedProjection.set(batch.getProjectionMatrix());
+        batch.setProjectionMatrix(projection);
+        batch.begin();
+        font.setColor(Color.WHITE);
+        font.draw(batch, text, sparkX, bottom + panelH - 8f);
+        batch.end();
+        batch.setProjectionMatrix(savedProjection);
+    }
+
+    private static float oneDecimal(float value) {
+        return Math.round(value * 10f) / 10f;
+    }
+
+    @Override
+    public void dispose() {
+        if (visible) {
+            profiler.disable();
+        }
+        if (profiler != null) {
+            shapes.dispose();
+            font.dispose();
+        }
+    }
+}
@@ -3,29 +3,22 @@ package org.example.snake.ui;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.ScreenAdapter;
-import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
-import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
-import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 
+import org.example.snake.GraphicsQuality;
 import org.example.snake.MainGame;
 
 public class SettingsScreen extends ScreenAdapter {
     private final MainGame game;
     private Stage stage;
     private Skin skin;
-    private Texture buttonUpTex, buttonOverTex, buttonDownTex;
-    private ShapeRenderer shapes;
 
     private final int[][] resolutions = new int[][]{
             {800, 600},
@@ -39,6 +32,9 @@ public class SettingsScreen extends ScreenAdapter {
 
     private TextButton resolutionBtn;
     private TextButton fullscreenBtn;
+    private TextButton qualityBtn;
+    /** Level the quality button last showed; in Auto the label only changes when this does. */
+    private GraphicsQuality shownQuality;
 
     public SettingsScreen(MainGame game) {
         this.game = game;
@@ -46,32 +42,22 @@ public class SettingsScreen extends ScreenAdapter {
 
     @Override
     public void show() {
-        setupStageAndSkin();
-        createButtonTextures();
-        buildUi();
+        if (stage == null) {
+            setupStageAndSkin();
+            createButtonStyle();
+            buildUi();
+        }
         Gdx.input.setInputProcessor(stage);
     }
 
     private void setupStageAndSkin() {
         stage = new Stage(new ScreenViewport(), game.batch);
-        shapes = new ShapeRenderer();
 
         skin = new Skin();
-        skin.add("default-font", game.font, com.badlogic.gdx.graphics.g2d.BitmapFont.class);
     }
 
-    private void createButtonTextures() {
-        buttonUpTex = makeRoundRectTex(360, 44, new Color(0.6f, 0.5f, 0.85f, 1f));
-        buttonOverTex = makeRoundRectTex(360, 44, new Color(0.72f, 0.62f, 0.95f, 1f));
-        buttonDownTex = makeRoundRectTex(360, 44, new Color(0.5f, 0.42f, 0.75f, 1f));
-
-        Drawable up = new TextureRegionDrawable(buttonUpTex);
-        Drawable over = new TextureRegionDrawable(buttonOverTex);
-        Drawable down = new TextureRegionDrawable(buttonDownTex);
-
-        TextButton.TextButtonStyle style = new TextButton.TextButtonStyle(up, down, up, game.font);
-        style.over = over;
-        skin.add("default", style);
+    private void createButtonStyle() {
+        skin.add("default", game.atlas.buttonStyle(UiAtlas.Palette.SETTINGS, game.font));
     }
 
     private void buildUi() {
@@ -97,6 +83,16 @@ public class SettingsScreen extends ScreenAdapter {
             }
         });
 
+        qualityBtn = new TextButton("", skin);
+        showQuality();
+        qualityBtn.addListener(new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                game.quality.setting(game.quality.setting().nextSetting(), game.settings());
+                showQuality();
+            }
+        });
+
         TextButton apply = new TextButton("Apply", skin);
         apply.addListener(new ClickListener() {
             @Override
@@ -115,6 +111,7 @@ public class SettingsScreen extends ScreenAdapter {
 
         table.add(resolutionBtn).row();
         table.add(fullscreenBtn).row();
+        table.add(qualityBtn).row();
         table.add(apply).row();
         table.add(back).row();
 
@@ -136,7 +133,7 @@ public class SettingsScreen extends ScreenAdapter {
             appliedH = r[1];
         }
         // Persist user choice for next launch
-        com.badlogic.gdx.Preferences prefs = Gdx.app.getPreferences("settings");
+        com.badlogic.gdx.Preferences prefs = game.settings();
         prefs.putInteger("width", appliedW);
         prefs.putInteger("height", appliedH);
         prefs.putBoolean("fullscreen", fullscreen);
@@ -148,6 +145,19 @@ public class SettingsScreen extends ScreenAdapter {
         return "Resolution: " + r[0] + "x" + r[1];
     }
 
+    private void showQuality() {
+        shownQuality = game.quality.current();
+        qualityBtn.setText(qualityLabel());
+    }
+
+    private String qualityLabel() {
+        GraphicsQuality setting = game.quality.setting();
+        if (setting == GraphicsQuality.AUTO) {
+            return "Graphics: Auto (" + game.quality.current().title + ")";
+        }
+        return "Graphics: " + setting.title;
+    }
+
     private String fullscreenLabel() {
         return "Fullscreen: " + (fullscreen ? "On" : "Off");
     }
@@ -159,6 +169,9 @@ public class SettingsScreen extends ScreenAdapter {
             return;
         }
 
+        if (game.quality.setting() == GraphicsQuality.AUTO && game.quality.current() != shownQuality) {
+            showQuality();
+        }
         ScreenUtils.clear(0.07f, 0.07f, 0.1f, 1f);
         drawBackground();
         stage.act(delta);
@@ -171,38 +184,9 @@ public class SettingsScreen extends ScreenAdapter {
     }
 
     private void drawBackground() {
-        int w = Gdx.graphics.getWidth();
-        int h = Gdx.graphics.getHeight();
-        shapes.begin(ShapeRenderer.ShapeType.Filled);
-        for (int y = 0; y < h; y += 16) {
-            float t = (float) y / h;
-            shapes.setColor(new Color(0.08f + 0.12f * t, 0.35f + 0.45f * t, 0.08f, 1f));
-            shapes.rect(0, y, w, 16);
-        }
-        shapes.end();
-    }
-
-    private Texture makeRoundRectTex(int width, int height, Color color) {
-        Pixmap pm = new Pixmap(width, height, Pixmap.Format.RGBA8888);
-        int r = 10;
-        pm.setColor(0, 0, 0, 0);
-        pm.fill();
-        pm.setColor(color);
-        pm.fillRectangle(r, 0, width - 2 * r, height);
-        pm.fillRectangle(0, r, width, height - 2 * r);
-        for (int dy = -r; dy <= r; dy++) {
-            for (int dx = -r; dx <= r; dx++) {
-                if (dx * dx + dy * dy <= r * r) {
-                    pm.drawPixel(r + dx, r + dy);
-                    pm.drawPixel(width - r - 1 + dx, r + dy);
-                    pm.drawPixel(r + dx, height - r - 1 + dy);
-                    pm.drawPixel(width - r - 1 + dx, height - r - 1 + dy);
-                }
-            }
-        }
-        Texture t = new Texture(pm);
-        pm.dispose();
-        return t;
+        game.batch.begin();
+        game.atlas.drawMeadow(game.batch, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        game.batch.end();
     }
 
     @Override
@@ -214,9 +198,5 @@ public class SettingsScreen extends ScreenAdapter {
     public void dispose() {
         if (stage != null) stage.dispose();
         if (skin != null) skin.dispose();
-        if (buttonUpTex != null) buttonUpTex.dispose();
-        if (buttonOverTex != null) buttonOverTex.dispose();
-        if (buttonDownTex != null) buttonDownTex.dispose();
-        if (shapes != null) shapes.dispose();
     }
 }
@@ -0,0 +1,285 @@
+package org.example.snake.ui;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.NinePatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
+import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
+import com.badlogic.gdx.scenes.scene2d.utils.NinePatchDrawable;
+import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * All generated UI art in one texture: rounded button tiles for every screen's palette (drawn as
+ * nine-patches, so one small tile serves any button size), medals, the meadow gradient and the
+ * menu snake. It is loaded once per run through {@link Loader}, which paints it (or decodes the
+ * copy cached as a PNG under {@code ~/.snake-the-game/cache}) off the render thread; screens
+ * take styles from it and never create or upload textures of their own.
+ */
+public final class UiAtlas implements Disposable {
+    /** Bump when the layout or artwork changes so stale cache files are ignored. */
+    private static final int VERSION = 1;
+    private static final String CACHE_FILE = ".snake-the-game/cache/ui-atlas-v" + VERSION + ".png";
+    private static final int WIDTH = 512;
+    private static final int HEIGHT = 256;
+    private static final int TILE_PITCH = 30;
+    private static final int MEDAL_W = 20;
+    private static final int MEDAL_H = 28;
+    private static final int MEDALS_X = 200;
+    private static final int GRADIENT_X = 300;
+    private static final int GRADIENT_H = 64;
+    private static final int PIXEL_X = 310;
+    private static final int BANNER_Y = 130;
+    private static final int BANNER_W = 360;
+    private static final int BANNER_H = 100;
+
+    public enum Palette {
+        MENU(new Color(0.15f, 0.7f, 0.3f, 1f), new Color(0.20f, 0.85f, 0.4f, 1f), new Color(0.10f, 0.55f, 0.25f, 1f), 10),
+        LEVELS(new Color(0.15f, 0.6f, 0.8f, 1f), new Color(0.20f, 0.75f, 0.95f, 1f), new Color(0.10f, 0.5f, 0.68f, 1f), 10),
+        SCORES(new Color(0.85f, 0.7f, 0.15f, 1f), new Color(0.95f, 0.8f, 0.25f, 1f), new Color(0.75f, 0.6f, 0.12f, 1f), 10),
+        SETTINGS(new Color(0.6f, 0.5f, 0.85f, 1f), new Color(0.72f, 0.62f, 0.95f, 1f), new Color(0.5f, 0.42f, 0.75f, 1f), 10),
+        GAME(new Color(0.2f, 0.6f, 0.85f, 1f), new Color(0.25f, 0.75f, 1.0f, 1f), new Color(0.15f, 0.5f, 0.7f, 1f), 10),
+        MULTIPLAYER(new Color(0.85f, 0.2f, 0.3f, 1f), new Color(1.0f, 0.3f, 0.4f, 1f), new Color(0.65f, 0.1f, 0.2f, 1f), 12),
+        SETUP(new Color(0.18f, 0.55f, 0.85f, 1f), new Color(0.24f, 0.70f, 1.0f, 1f), new Color(0.12f, 0.42f, 0.65f, 1f), 12),
+        FIELD(new Color(0.1f, 0.1f, 0.14f, 0.9f), new Color(0.1f, 0.1f, 0.14f, 0.9f), new Color(0.1f, 0.1f, 0.14f, 0.9f), 12);
+
+        final Color up;
+        final Color over;
+        final Color down;
+        final int radius;
+
+        Palette(Color up, Color over, Color down, int radius) {
+            this.up = up;
+            this.over = over;
+            this.down = down;
+            this.radius = radius;
+        }
+    }
+
+    private static final Color[] MEDAL_COLORS = {
+            new Color(1f, 0.84f, 0f, 1f),
+            new Color(0.75f, 0.75f, 0.75f, 1f),
+            new Color(0.8f, 0.5f, 0.2f, 1f),
+            new Color(0.2f, 0.6f, 1f, 1f)
+    };
+
+    private final Texture texture;
+    private final NinePatch[][] patches = new NinePatch[Palette.values().length][3];
+    private final TextureRegion[] medals = new TextureRegion[MEDAL_COLORS.length];
+    private final TextureRegion gradient;
+    private final TextureRegion pixel;
+    private final TextureRegion banner;
+
+    private UiAtlas(Pixmap pm) {
+        texture = new Texture(pm);
+        texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        pm.dispose();
+
+        for (Palette p : Palette.values()) {
+            int size = tileSize(p);
+            for (int state = 0; state < 3; state++) {
+                int split = p.radius + 1;
+                patches[p.ordinal()][state] = new NinePatch(new TextureRegion(texture,
+                        tileX(p, state), tileY(p), size, size), split, split, split, split);
+            }
+        }
+        for (int i = 0; i < medals.length; i++) {
+            medals[i] = new TextureRegion(texture, MEDALS_X + i * (MEDAL_W + 2), 0, MEDAL_W, MEDAL_H);
+        }
+        gradient = new TextureRegion(texture, GRADIENT_X + 1, 0, 2, GRADIENT_H);
+        pixel = new TextureRegion(texture, PIXEL_X + 1, 1, 2, 2);
+        banner = new TextureRegion(texture, 0, BANNER_Y, BANNER_W, BANNER_H);
+    }
+
+    /** Button style for the palette; cheap, no textures are created. */
+    public TextButton.TextButtonStyle buttonStyle(Palette palette, BitmapFont font) {
+        NinePatch[] states = patches[palette.ordinal()];
+        Drawable up = new NinePatchDrawable(states[0]);
+        TextButton.TextButtonStyle style = new TextButton.TextButtonStyle(up, new NinePatchDrawable(states[2]), up, font);
+        style.over = new NinePatchDrawable(states[1]);
+        return style;
+    }
+
+    /** Rounded panel in the palette's resting color, e.g. a text field background. */
+    public Drawable panel(Palette palette) {
+        return new NinePatchDrawable(patches[palette.ordinal()][0]);
+    }
+
+    /** Solid drawable of the given color, e.g. a text cursor or selection. */
+    public Drawable solid(Color color) {
+        return new TextureRegionDrawable(pixel).tint(color);
+    }
+
+    /** Medal for a 0-based rank; ranks past bronze share the last medal. Drawn 20x28, ribbon on top. */
+    public TextureRegion medal(int rank) {
+        return medals[Math.min(Math.max(0, rank), medals.length - 1)];
+    }
+
+    public TextureRegion snakeBanner() {
+        return banner;
+    }
+
+    /** Fills the area with the green meadow gradient; call between {@code begin()} and {@code end()}. */
+    public void drawMeadow(Batch batch, float width, float height) {
+        batch.draw(gradient, 0, 0, width, height);
+    }
+
+    private static int tileSize(Palette p) {
+        return 2 * p.radius + 4;
+    }
+
+    /** Two palettes per row, three state tiles each. */
+    private static int tileX(Palette p, int state) {
+        return ((p.ordinal() % 2) * 3 + state) * TILE_PITCH;
+    }
+
+    private static int tileY(Palette p) {
+        return (p.ordinal() / 2) * TILE_PITCH;
+    }
+
+    private static Pixmap readCache() {
+        try {
+            if (Gdx.files == null) return null;
+            FileHandle file = Gdx.files.external(CACHE_FILE);
+            if (!file.exists()) return null;
+            Pixmap pm = new Pixmap(file);
+            if (pm.getWidth() == WIDTH && pm.getHeight() == HEIGHT) {
+                return pm;
+            }
+            pm.dispose();
+        } catch (Exception ex) {
+            if (Gdx.app != null) Gdx.app.error("UiAtlas", "Ignoring unreadable atlas cache", ex);
+        }
+        return null;
+    }
+
+    private static void writeCache(Pixmap pm) {
+        try {
+            if (Gdx.files == null) return;
+            PixmapIO.writePNG(Gdx.files.external(CACHE_FILE), pm);
+        } catch (Exception ex) {
+            if (Gdx.app != null) Gdx.app.error("UiAtlas", "Could not cache UI atlas", ex);
+        }
+    }
+
+    private static Pixmap paint() {
+        Pixmap pm = new Pixmap(WIDTH, HEIGHT, Pixmap.Format.RGBA8888);
+        pm.setBlending(Pixmap.Blending.None);
+        pm.setColor(0, 0, 0, 0);
+        pm.fill();
+        for (Palette p : Palette.values()) {
+            Color[] states = {p.up, p.over, p.down};
+            for (int state = 0; state < 3; state++) {
+                paintRoundRect(pm, tileX(p, state), tileY(p), tileSize(p), tileSize(p), p.radius, states[state]);
+            }
+        }
+        for (int i = 0; i < MEDAL_COLORS.length; i++) {
+            int x = MEDALS_X + i * (MEDAL_W + 2);
+            pm.setColor(Color.DARK_GRAY);
+            pm.fillRectangle(x + 4, 0, 4, 8);
+            pm.fillRectangle(x + 12, 0, 4, 8);
+            pm.setColor(MEDAL_COLORS[i]);
+            pm.fillRectangle(x, 8, MEDAL_W, MEDAL_W);
+        }
+        for (int row = 0; row < GRADIENT_H; row++) {
+            // Row 0 is the top of the screen once the region is drawn.
+            float t = (GRADIENT_H - 1 - row) / (float) GRADIENT_H;
+            pm.setColor(0.08f + 0.12f * t, 0.35f + 0.45f * t, 0.08f, 1f);
+            pm.fillRectangle(GRADIENT_X, row, 4, 1);
+        }
+        pm.setColor(Color.WHITE);
+        pm.fillRectangle(PIXEL_X, 0, 4, 4);
+        paintSnake(pm, 0, BANNER_Y, BANNER_W, BANNER_H);
+        return pm;
+    }
+
+    private static void paintRoundRect(Pixmap pm, int x, int y, int width, int height, int r, Color color) {
+        pm.setColor(color);
+        pm.fillRectangle(x + r, y, width - 2 * r, height);
+        pm.fillRectangle(x, y + r, width, height - 2 * r);
+        pm.fillCircle(x + r, y + r, r);
+        pm.fillCircle(x + width - r - 1, y + r, r);
+        pm.fillCircle(x + r, y + height - r - 1, r);
+        pm.fillCircle(x + width - r - 1, y + height - r - 1, r);
+    }
+
+    private static void paintSnake(Pixmap pm, int ox, int oy, int width, int height) {
+        int s = Math.max(6, height / 8);
+        int margin = s;
+        int y = height / 2;
+        pm.setColor(0.18f, 0.8f, 0.2f, 1f);
+        for (int i = 0; i < (width - 2 * margin) / (s + 6); i++) {
+            float t = i / 6f;
+            int yy = (int) (y + Math.sin(t * 2.2) * (height * 0.2));
+            pm.fillRectangle(ox + margin + i * (s + 6), oy + yy - s / 2, s, s);
+        }
+        // Head
+        pm.setColor(0.15f, 0.7f, 0.18f, 1f);
+        pm.fillRectangle(ox + width - margin - s, oy + y - s / 2, s, s);
+        // Eyes
+        pm.setColor(0, 0, 0, 1);
+        pm.fillRectangle(ox + width - margin - s + 3, oy + y + s / 2 - 6, 3, 3);
+        pm.fillRectangle(ox + width - margin - s + 7, oy + y + s / 2 - 6, 3, 3);
+        // Tongue
+        pm.setColor(1f, 0.3f, 0.4f, 1f);
+        pm.fillRectangle(ox + width - margin - 2, oy + y - 2, 4, 4);
+    }
+
+    @Override
+    public void dispose() {
+        texture.dispose();
+    }
+
+    /** {@link AssetManager} loader; the file name is only a key, the atlas has no source file. */
+    public static final class Loader extends AsynchronousAssetLoader<UiAtlas, Loader.Parameters> {
+        private Pixmap pixmap;
+
+        public static final class Parameters extends AssetLoaderParameters<UiAtlas> {
+        }
+
+        public Loader(FileHandleResolver resolver) {
+            super(resolver);
+        }
+
+        @Override
+        public void loadAsync(AssetManager manager, String fileName, FileHandle file, Parameters parameter) {
+            long start = System.nanoTime();
+            boolean cached = true;
+            pixmap = readCache();
+            if (pixmap == null) {
+                cached = false;
+                pixmap = paint();
+                writeCache(pixmap);
+            }
+            if (Gdx.app != null) {
+                Gdx.app.log("UiAtlas", (cached ? "Loaded cached" : "Generated") + " UI atlas in "
+                        + (System.nanoTime() - start) / 1_000_000 + " ms");
+            }
+        }
+
+        @Override
+        public UiAtlas loadSync(AssetManager manager, String fileName, FileHandle file, Parameters parameter) {
+            UiAtlas atlas = new UiAtlas(pixmap);
+            pixmap = null;
+            return atlas;
+        }
+
+        @Override
+        public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, Parameters parameter) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.snake;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.snake.game.Level;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HighScoresTest {
+    private static final String SNAPSHOT = "highscores.snapshot";
+    private static final String JOURNAL = "highscores.journal";
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() {
+        HighScores.useDirectory(dir);
+    }
+
+    @Test
+    void journalIsReplayedOnTopOfTheSnapshot() throws IOException {
+        write(SNAPSHOT, "G 3\nS LEVEL_1 50\nS LEVEL_2 40\n");
+        write(JOURNAL, "G 3\nS LEVEL_1 70\nC LEVEL_2\nS LEVEL_2 5\n");
+        assertEquals(List.of(70, 50), HighScores.top(Level.LEVEL_1));
+        assertEquals(List.of(5), HighScores.top(Level.LEVEL_2));
+    }
+
+    @Test
+    void scoresSurviveAReload() {
+        HighScores.submit(Level.LEVEL_1, 30);
+        HighScores.submit(Level.LEVEL_1, 90);
+        HighScores.submit(Level.LEVEL_3, 12);
+        HighScores.clear(Level.LEVEL_3);
+        HighScores.submit(Level.LEVEL_3, 7);
+        reload();
+        assertEquals(List.of(90, 30), HighScores.top(Level.LEVEL_1));
+        assertEquals(List.of(7), HighScores.top(Level.LEVEL_3));
+    }
+
+    @Test
+    void tornLastLineIsSkippedAndNotContinued() throws IOException {
+        write(JOURNAL, "G 0\nS LEVEL_1 40\nS LEVEL_");
+        assertEquals(List.of(40), HighScores.top(Level.LEVEL_1));
+        HighScores.submit(Level.LEVEL_1, 60);
+        reload();
+        assertEquals(List.of(60, 40), HighScores.top(Level.LEVEL_1));
+    }
+
+    @Test
+    void journalIsCompactedAfterEnoughEntries() throws IOException {
+        for (int score = 1; score <= HighScores.COMPACT_AFTER; score++) {
+            HighScores.submit(Level.LEVEL_1, score);
+        }
+        assertEquals(List.of("G 1"), read(JOURNAL));
+        List<String> snapshot = read(SNAPSHOT);
+        assertEquals("G 1", snapshot.get(0));
+        assertEquals(11, snapshot.size());
+
+        List<Integer> best = new ArrayList<>();
+        for (int score = HighScores.COMPACT_AFTER; best.size() < 10; score--) {
+            best.add(score);
+        }
+        reload();
+        assertEquals(best, HighScores.top(Level.LEVEL_1));
+    }
+
+    @Test
+    void journalOfAnOlderGenerationIsIgnored() throws IOException {
+        // A crash after the snapshot was moved into place but before the journal was reset.
+        write(SNAPSHOT, "G 2\nS LEVEL_1 30\nS LEVEL_1 20\n");
+        write(JOURNAL, "G 1\nS LEVEL_1 30\nS LEVEL_1 20\n");
+        assertEquals(List.of(30, 20), HighScores.top(Level.LEVEL_1));
+
+        HighScores.submit(Level.LEVEL_1, 10);
+        assertEquals(List.of("G 2", "S LEVEL_1 10"), read(JOURNAL));
+        reload();
+        assertEquals(List.of(30, 20, 10), HighScores.top(Level.LEVEL_1));
+    }
+
+    private void reload() {
+        HighScores.useDirectory(dir);
+    }
+
+    private void write(String name, String content) throws IOException {
+        Files.writeString(dir.resolve(name), content, StandardCharsets.UTF_8);
+    }
+
+    private List<String> read(String name) throws IOException {
+        return Files.readAllLines(dir.resolve(name), StandardCharsets.UTF_8);
+    }
+}
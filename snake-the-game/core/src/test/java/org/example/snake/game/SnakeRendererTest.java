@@ -0,0 +1,68 @@
+package org.example.snake.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import org.example.snake.GraphicsQuality;
+import org.example.snake.engine.Direction;
+import org.example.snake.engine.Rng;
+import org.example.snake.engine.Snake;
+import org.example.snake.engine.World;
+import org.junit.jupiter.api.Test;
+
+class SnakeRendererTest {
+    private static final int LENGTH = 1_000;
+    private static final int CELL = 16;
+
+    @Test
+    void longSnakeFramesDoNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        World world = new World(LENGTH + 300, 3, new Rng(1));
+        world.foodTarget(0);
+        Snake snake = world.addSnake();
+        assertTrue(world.spawn(snake, LENGTH, 1, Direction.RIGHT, LENGTH));
+        SnakeRenderer.SausageBuffers buf = new SnakeRenderer.SausageBuffers();
+        buf.reset(snake);
+
+        // Warm-up lets the JIT settle; compilation happens on other threads and is not counted.
+        frames(world, snake, buf, 3_000);
+        long before = threads.getCurrentThreadAllocatedBytes();
+        frames(world, snake, buf, 1_000);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(snake.alive());
+        assertEquals(LENGTH, SnakeRenderer.layout(0, 0, CELL, buf, 0.5f, 1f, GraphicsQuality.HIGH));
+        assertEquals(0, allocated, "bytes allocated over 1,000 frames");
+    }
+
+    @Test
+    void pointsBlendBetweenSteps() {
+        World world = new World(10, 3, new Rng(1));
+        world.foodTarget(0);
+        Snake snake = world.addSnake();
+        world.spawn(snake, 4, 1, Direction.RIGHT, 3);
+        SnakeRenderer.SausageBuffers buf = new SnakeRenderer.SausageBuffers();
+        buf.reset(snake);
+        buf.keepAsPrevious();
+        world.step();
+        buf.load(snake);
+
+        assertEquals(3, SnakeRenderer.layout(100, 50, CELL, buf, 0.25f, 0f, GraphicsQuality.LOW));
+        // Head moves from cell 4 to 5; a quarter of the way is x = 4.25 cells, plus half a cell.
+        assertEquals(100 + 4.25f * CELL + CELL / 2f, buf.pointX(0), 1e-3f);
+        assertEquals(50 + 1.5f * CELL, buf.pointY(0), 1e-3f);
+    }
+
+    /** One frame per call, stepping the snake every 20 frames like a slow level would. */
+    private static void frames(World world, Snake snake, SnakeRenderer.SausageBuffers buf, int count) {
+        for (int i = 0; i < count; i++) {
+            if (i % 20 == 0) {
+                buf.keepAsPrevious();
+                world.step();
+                buf.load(snake);
+            }
+            SnakeRenderer.layout(0, 0, CELL, buf, (i % 20) / 20f, i / 60f, GraphicsQuality.HIGH);
+        }
+    }
+}
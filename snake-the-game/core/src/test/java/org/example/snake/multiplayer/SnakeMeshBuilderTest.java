@@ -0,0 +1,100 @@
+package org.example.snake.multiplayer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SnakeMeshBuilderTest {
+    private static final int DISC = 8;
+    private static final int DISC_VERTICES = DISC * 3;
+    private static final int QUAD_VERTICES = 6;
+    private static final float CELL = 10f;
+    private static final float RADIUS = 4f;
+
+    private SnakeMeshBuilder builder;
+
+    @BeforeEach
+    void setUp() {
+        builder = new SnakeMeshBuilder();
+        builder.discSegments(DISC);
+    }
+
+    @Test
+    void singleSegmentIsOneDisc() {
+        add(new float[] {3}, new float[] {2});
+        assertEquals(DISC_VERTICES, builder.vertexCount());
+        assertEquals(builder.vertexCount() * SnakeMeshBuilder.FLOATS_PER_VERTEX, builder.floatCount());
+        assertCounterClockwise();
+        // Every disc triangle fans out from the cell centre.
+        for (int v = 0; v < builder.vertexCount(); v += 3) {
+            assertEquals(3 * CELL + CELL / 2, x(v), 1e-4f);
+            assertEquals(2 * CELL + CELL / 2, y(v), 1e-4f);
+        }
+    }
+
+    @Test
+    void straightSnakeIsOneQuadBetweenCaps() {
+        add(new float[] {5, 4, 3, 2, 1}, new float[] {2, 2, 2, 2, 2});
+        assertEquals(2 * DISC_VERTICES + QUAD_VERTICES, builder.vertexCount());
+        assertCounterClockwise();
+    }
+
+    @Test
+    void turnAddsAQuadAndAJoint() {
+        add(new float[] {3, 2, 1, 1, 1}, new float[] {1, 1, 1, 2, 3});
+        assertEquals(3 * DISC_VERTICES + 2 * QUAD_VERTICES, builder.vertexCount());
+        assertCounterClockwise();
+    }
+
+    @Test
+    void turnWithoutJointsLeavesOnlyCaps() {
+        builder.joints(false);
+        add(new float[] {3, 2, 1, 1, 1}, new float[] {1, 1, 1, 2, 3});
+        assertEquals(2 * DISC_VERTICES + 2 * QUAD_VERTICES, builder.vertexCount());
+        assertCounterClockwise();
+    }
+
+    @Test
+    void repeatedPointsAddNothing() {
+        add(new float[] {3, 3, 2, 2, 1}, new float[] {2, 2, 2, 2, 2});
+        assertEquals(2 * DISC_VERTICES + QUAD_VERTICES, builder.vertexCount());
+    }
+
+    @Test
+    void bodiesAppendUntilReset() {
+        add(new float[] {1}, new float[] {1});
+        add(new float[] {4, 5}, new float[] {4, 4});
+        assertEquals(3 * DISC_VERTICES + QUAD_VERTICES, builder.vertexCount());
+        builder.reset();
+        assertEquals(0, builder.vertexCount());
+        add(new float[] {1}, new float[] {1}, 0);
+        assertEquals(0, builder.vertexCount());
+    }
+
+    private void add(float[] xs, float[] ys) {
+        add(xs, ys, xs.length);
+    }
+
+    private void add(float[] xs, float[] ys, int count) {
+        builder.addBody(xs, ys, count, CELL, CELL / 2, RADIUS, 1f);
+    }
+
+    /** All triangles must face the camera, or they vanish as soon as back faces are culled. */
+    private void assertCounterClockwise() {
+        for (int v = 0; v < builder.vertexCount(); v += 3) {
+            float cross = (x(v + 1) - x(v)) * (y(v + 2) - y(v)) - (y(v + 1) - y(v)) * (x(v + 2) - x(v));
+            int triangle = v / 3;
+            assertTrue(cross > 0, () -> "triangle " + triangle + " is clockwise or degenerate");
+        }
+    }
+
+    private float x(int vertex) {
+        return builder.vertices()[vertex * SnakeMeshBuilder.FLOATS_PER_VERTEX];
+    }
+
+    private float y(int vertex) {
+        return builder.vertices()[vertex * SnakeMeshBuilder.FLOATS_PER_VERTEX + 1];
+    }
+}
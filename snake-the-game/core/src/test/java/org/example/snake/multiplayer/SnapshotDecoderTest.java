@@ -0,0 +1,182 @@
+package org.example.snake.multiplayer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.badlogic.gdx.utils.IntMap;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Checks the streaming decode against a {@code readTree} of the same message, as it was decoded before. */
+class SnapshotDecoderTest {
+    private static final int HANDLES = 40;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Random random = new Random(7);
+    private final IntMap<MultiplayerClient.PlayerInfo> table = new IntMap<>();
+    private final MultiplayerClient.Snapshot snapshot = new MultiplayerClient.Snapshot();
+    private SnapshotDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        // Handles past HANDLES are sent but not in the table yet.
+        for (int handle = 1; handle <= HANDLES; handle++) {
+            table.put(handle, new MultiplayerClient.PlayerInfo(handle, "id" + handle, "Player " + handle, "#4CAF50"));
+        }
+        decoder = new SnapshotDecoder(mapper.getFactory(), table);
+    }
+
+    @Test
+    void streamingDecodeMatchesTheTree() throws IOException {
+        for (int round = 0; round < 50; round++) {
+            String text = state(round, random.nextInt(30), random.nextInt(100)).toString();
+            assertTrue(decode(text));
+            compare(mapper.readTree(text), snapshot);
+        }
+    }
+
+    @Test
+    void pointsInAnotherOrderOrWithExtraFieldsAreRead() throws IOException {
+        String text = "{\"type\":\"state\",\"tick\":3,\"players\":[{\"handle\":1,\"alive\":true,\"score\":2,"
+                + "\"segments\":[{\"y\":5,\"x\":4},{\"x\":6,\"z\":[1,{}],\"y\":7},{\"x\":8},{},{\"x\":9,\"y\":10}]}],"
+                + "\"foods\":[{\"x\":1,\"y\":2,\"w\":3},{\"y\":4,\"x\":5}]}";
+        assertTrue(decode(text));
+        compare(mapper.readTree(text), snapshot);
+    }
+
+    @Test
+    void keptMessageAddsTheLastSummaries() throws IOException {
+        ObjectNode full = state(1, 6, 3);
+        assertTrue(decode(full.toString()));
+        ObjectNode kept = state(2, 0, 3);
+        kept.put("kept", true);
+        ArrayNode players = (ArrayNode) kept.get("players");
+        JsonNode first = full.get("players").get(0);
+        players.add(first);
+        assertTrue(decode(kept.toString()));
+
+        // The kept message's own players come first, then every remembered summary it did not resend.
+        ArrayNode expected = mapper.createArrayNode();
+        expected.add(first);
+        for (JsonNode player : full.get("players")) {
+            int handle = player.get("handle").asInt();
+            if (player.has("box") && handle != first.get("handle").asInt() && table.containsKey(handle)) {
+                expected.add(player);
+            }
+        }
+        kept.set("players", expected);
+        compare(kept, snapshot);
+    }
+
+    @Test
+    void otherMessagesAreLeftToTheGenericPath() throws IOException {
+        assertFalse(decode("{\"type\":\"welcome\",\"id\":\"a\"}"));
+        assertFalse(decode("{\"tick\":1,\"type\":\"state\"}"));
+    }
+
+    @Test
+    void ackIsResetOnEveryDecode() throws IOException {
+        snapshot.ack = 12;
+        assertTrue(decode(state(1, 1, 1).toString()));
+        assertEquals(-1, snapshot.ack);
+    }
+
+    private boolean decode(String text) throws IOException {
+        char[] chars = text.toCharArray();
+        return decoder.decodeState(chars, chars.length, snapshot);
+    }
+
+    private ObjectNode state(long tick, int players, int foods) {
+        ObjectNode state = mapper.createObjectNode();
+        state.put("type", "state");
+        state.put("tick", tick);
+        ArrayNode list = state.putArray("players");
+        for (int i = 0; i < players; i++) {
+            ObjectNode player = list.addObject();
+            player.put("handle", 1 + random.nextInt(HANDLES + 5));
+            player.put("alive", random.nextBoolean());
+            player.put("score", random.nextInt(1000));
+            boolean summary = random.nextInt(3) == 0;
+            int length = summary ? 2 : random.nextInt(40);
+            if (summary) {
+                player.put("length", 2 + random.nextInt(60));
+            }
+            points(player.putArray("segments"), length);
+            if (summary) {
+                ArrayNode box = player.putArray("box");
+                for (int k = 0; k < 4; k++) {
+                    box.add(random.nextInt(200));
+                }
+            }
+        }
+        points(state.putArray("foods"), foods);
+        return state;
+    }
+
+    private void points(ArrayNode into, int count) {
+        for (int i = 0; i < count; i++) {
+            ObjectNode point = into.addObject();
+            point.put("x", random.nextInt(200));
+            point.put("y", random.nextInt(200));
+        }
+    }
+
+    private void compare(JsonNode expected, MultiplayerClient.Snapshot actual) {
+        assertEquals(expected.get("tick").asLong(), actual.tick);
+        JsonNode players = expected.get("players");
+        assertEquals(players.size(), actual.playerCount);
+        for (int i = 0; i < players.size(); i++) {
+            JsonNode want = players.get(i);
+            MultiplayerClient.Player got = actual.players[i];
+            int handle = want.get("handle").asInt();
+            assertEquals(handle, got.handle);
+            assertEquals(want.get("alive").asBoolean(), got.alive);
+            assertEquals(want.get("score").asInt(), got.score);
+            comparePoints(want.get("segments"), got.xs, got.ys, got.length);
+            boolean summary = want.has("box");
+            assertEquals(summary, got.summary);
+            if (summary) {
+                JsonNode box = want.get("box");
+                assertEquals(want.get("length").asInt(), got.bodyLength);
+                assertEquals(box.get(0).asInt(), got.minX);
+                assertEquals(box.get(1).asInt(), got.minY);
+                assertEquals(box.get(2).asInt(), got.maxX);
+                assertEquals(box.get(3).asInt(), got.maxY);
+            } else {
+                assertEquals(got.length, got.bodyLength);
+            }
+            MultiplayerClient.PlayerInfo info = table.get(handle);
+            if (info == null) {
+                assertNull(got.id);
+            } else {
+                assertSame(info.id, got.id);
+                assertSame(info.name, got.name);
+                assertSame(info.color, got.color);
+            }
+        }
+        comparePoints(expected.get("foods"), actual.foodX, actual.foodY, actual.foodCount);
+    }
+
+    private static void comparePoints(JsonNode points, int[] xs, int[] ys, int count) {
+        assertEquals(points.size(), count);
+        for (int i = 0; i < count; i++) {
+            JsonNode point = points.get(i);
+            if (point.has("x")) {
+                assertEquals(point.get("x").asInt(), xs[i]);
+            }
+            if (point.has("y")) {
+                assertEquals(point.get("y").asInt(), ys[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.snake.multiplayer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/** Compares every query against a plain scan over the snapshot, as culling did before the grid. */
+class SnapshotGridTest {
+    private static final int COLS = 180;
+    private static final int ROWS = 100;
+
+    private final Random random = new Random(42);
+    private final SnapshotGrid grid = new SnapshotGrid();
+
+    @Test
+    void queriesMatchABruteForceScan() {
+        for (int round = 0; round < 20; round++) {
+            MultiplayerClient.Snapshot snapshot = arena(random.nextInt(400), random.nextInt(600));
+            grid.rebuild(snapshot, COLS, ROWS);
+            for (int q = 0; q < 50; q++) {
+                int minCol = random.nextInt(COLS + 20) - 10;
+                int minRow = random.nextInt(ROWS + 20) - 10;
+                int maxCol = minCol + random.nextInt(60);
+                int maxRow = minRow + random.nextInt(40);
+                checkFoods(snapshot, minCol, minRow, maxCol, maxRow);
+                checkPlayers(snapshot, minCol, minRow, maxCol, maxRow);
+            }
+        }
+    }
+
+    @Test
+    void rebuildForgetsThePreviousSnapshot() {
+        grid.rebuild(arena(50, 50), COLS, ROWS);
+        MultiplayerClient.Snapshot empty = new MultiplayerClient.Snapshot();
+        grid.rebuild(empty, COLS, ROWS);
+        assertEquals(0, grid.queryFoods(0, 0, COLS, ROWS));
+        assertEquals(0, grid.queryPlayers(0, 0, COLS, ROWS));
+    }
+
+    /** Foods come back per bucket, so extra ones are fine; a missing or repeated one is not. */
+    private void checkFoods(MultiplayerClient.Snapshot s, int minCol, int minRow, int maxCol, int maxRow) {
+        int count = grid.queryFoods(minCol, minRow, maxCol, maxRow);
+        Set<Integer> hits = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            assertTrue(hits.add(grid.hit(i)), "food reported twice");
+        }
+        for (int i = 0; i < s.foodCount; i++) {
+            if (inside(s.foodX[i], s.foodY[i], minCol, minRow, maxCol, maxRow)) {
+                assertTrue(hits.contains(i), "visible food " + i + " missing");
+            }
+        }
+    }
+
+    /** Players are filtered by their box, so the result must be exact and in snapshot order. */
+    private void checkPlayers(MultiplayerClient.Snapshot s, int minCol, int minRow, int maxCol, int maxRow) {
+        List<Integer> expected = new ArrayList<>();
+        for (int p = 0; p < s.playerCount; p++) {
+            if (overlaps(s.players[p], minCol, minRow, maxCol, maxRow)) {
+                expected.add(p);
+            }
+        }
+        int count = grid.queryPlayers(minCol, minRow, maxCol, maxRow);
+        List<Integer> actual = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            actual.add(grid.hit(i));
+        }
+        assertEquals(expected, actual);
+    }
+
+    private static boolean overlaps(MultiplayerClient.Player p, int minCol, int minRow, int maxCol, int maxRow) {
+        if (p.summary) {
+            return p.maxX >= minCol && p.minX <= maxCol && p.maxY >= minRow && p.minY <= maxRow;
+        }
+        int x0 = Integer.MAX_VALUE, y0 = Integer.MAX_VALUE, x1 = Integer.MIN_VALUE, y1 = Integer.MIN_VALUE;
+        for (int i = 0; i < p.length; i++) {
+            x0 = Math.min(x0, p.xs[i]);
+            x1 = Math.max(x1, p.xs[i]);
+            y0 = Math.min(y0, p.ys[i]);
+            y1 = Math.max(y1, p.ys[i]);
+        }
+        return p.length > 0 && x1 >= minCol && x0 <= maxCol && y1 >= minRow && y0 <= maxRow;
+    }
+
+    private static boolean inside(int x, int y, int minCol, int minRow, int maxCol, int maxRow) {
+        return x >= minCol && x <= maxCol && y >= minRow && y <= maxRow;
+    }
+
+    /** Random snakes, some sent as summaries and some poking past the edge, plus random foods. */
+    private MultiplayerClient.Snapshot arena(int players, int foods) {
+        MultiplayerClient.Snapshot s = new MultiplayerClient.Snapshot();
+        for (int p = 0; p < players; p++) {
+            MultiplayerClient.Player player = s.nextPlayer();
+            int length = random.nextInt(40);
+            if (player.xs.length < length) {
+                player.xs = new int[length];
+                player.ys = new int[length];
+            }
+            int x = random.nextInt(COLS + 4) - 2;
+            int y = random.nextInt(ROWS + 4) - 2;
+            for (int i = 0; i < length; i++) {
+                player.xs[i] = x;
+                player.ys[i] = y;
+                if (random.nextBoolean()) {
+                    x += random.nextBoolean() ? 1 : -1;
+                } else {
+                    y += random.nextBoolean() ? 1 : -1;
+                }
+            }
+            player.length = length;
+            player.summary = length > 1 && random.nextInt(4) == 0;
+            if (player.summary) {
+                player.minX = x - random.nextInt(30);
+                player.minY = y - random.nextInt(30);
+                player.maxX = x + random.nextInt(30);
+                player.maxY = y + random.nextInt(30);
+            }
+        }
+        if (s.foodX.length < foods) {
+            s.foodX = new int[foods];
+            s.foodY = new int[foods];
+        }
+        for (int i = 0; i < foods; i++) {
+            s.foodX[i] = random.nextInt(COLS);
+            s.foodY[i] = random.nextInt(ROWS);
+        }
+        s.foodCount = foods;
+        return s;
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.snake.engine;
+
+public enum Direction {
+    UP(0, 1), DOWN(0, -1), LEFT(-1, 0), RIGHT(1, 0);
+
+    private static final Direction[] VALUES = values();
+
+    private final int dx;
+    private final int dy;
+
+    Direction(int dx, int dy) {
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    public int dx() { return dx; }
+    public int dy() { return dy; }
+
+    public boolean isOpposite(Direction other) {
+        return other != null && dx + other.dx == 0 && dy + other.dy == 0;
+    }
+
+    /** Cached {@link #values()} array; callers must not modify it. */
+    public static Direction[] all() {
+        return VALUES;
+    }
+
+    public static Direction fromDelta(int dx, int dy) {
+        for (Direction d : VALUES) {
+            if (d.dx == dx && d.dy == dy) {
+                return d;
+            }
+        }
+        return null;
+    }
+
+    public static Direction from(String value) {
+        if (value == null) return null;
+        try {
+            return Direction.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.snake.engine;
+
+import java.util.Arrays;
+
+/**
+ * Breadth-first search from a snake's head to the nearest food, reading the {@link World}
+ * occupancy grid directly. All buffers are allocated once and reused; a visit stamp avoids
+ * clearing them between searches.
+ */
+public final class PathFinder {
+    private final World world;
+    private final int cols;
+    private final int[] queue;
+    private final int[] parent;
+    private final int[] visited;
+    private int stamp;
+
+    public PathFinder(World world) {
+        this.world = world;
+        this.cols = world.cols();
+        int size = world.cols() * world.rows();
+        this.queue = new int[size];
+        this.parent = new int[size];
+        this.visited = new int[size];
+    }
+
+    /**
+     * Searches from the head towards the nearest food, expanding at most {@code maxNodes} cells.
+     * The path (excluding the head, in travel order) is written into {@code path} as cell indices.
+     *
+     * @return the path length, or 0 when no food is reachable within the node limit
+     */
+    public int plan(int headX, int headY, int maxNodes, int[] path) {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            stamp = 1;
+        }
+        int start = world.index(headX, headY);
+        int headIdx = 0;
+        int tailIdx = 0;
+        queue[tailIdx++] = start;
+        visited[start] = stamp;
+        parent[start] = -1;
+        int expanded = 0;
+        Direction[] dirs = Direction.all();
+        while (headIdx < tailIdx && expanded < maxNodes) {
+            int cell = queue[headIdx++];
+            expanded++;
+            if (cell != start && world.isFood(cell)) {
+                return reconstruct(start, cell, path);
+            }
+            int cx = cell % cols;
+            int cy = cell / cols;
+            for (Direction d : dirs) {
+                int nx = cx + d.dx();
+                int ny = cy + d.dy();
+                if (world.isBlocked(nx, ny)) continue;
+                int next = ny * cols + nx;
+                if (visited[next] == stamp) continue;
+                visited[next] = stamp;
+                parent[next] = cell;
+                queue[tailIdx++] = next;
+            }
+        }
+        return 0;
+    }
+
+    private int reconstruct(int start, int target, int[] path) {
+        int length = 0;
+        for (int c = target; c != start; c = parent[c]) {
+            length++;
+        }
+        if (length > path.length) {
+            return 0;
+        }
+        int i = length;
+        for (int c = target; c != start; c = parent[c]) {
+            path[--i] = c;
+        }
+        return length;
+    }
+}
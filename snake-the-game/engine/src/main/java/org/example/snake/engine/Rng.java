@@ -0,0 +1,39 @@
+package org.example.snake.engine;
+
+/**
+ * SplitMix64 generator. Unlike {@link java.util.Random} it is not synchronized and its sequence
+ * depends only on the seed, so a seeded world replays the same game on every platform.
+ */
+public final class Rng {
+    private long state;
+
+    public Rng(long seed) {
+        this.state = seed;
+    }
+
+    public void seed(long seed) {
+        this.state = seed;
+    }
+
+    public long nextLong() {
+        return mix(state += 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * SplitMix64 finalizer. Useful to derive independent seeds from consecutive integers, e.g.
+     * one per simulated game, without their sequences overlapping.
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Uniform value in {@code [0, bound)}; {@code bound} must be positive. */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive: " + bound);
+        }
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.snake.engine;
+
+/**
+ * One snake in a {@link World}. The body is a ring buffer of cell indices, head first, so a
+ * move is a head push and a tail pop with no allocation; it only grows when the body outgrows
+ * the buffer.
+ */
+public final class Snake {
+    private final int id;
+    private final int cols;
+    private int[] ring = new int[16];
+    private int head;
+    private int length;
+    private boolean alive;
+    private int score;
+    private Direction direction = Direction.RIGHT;
+    private Direction pending;
+    private Object attachment;
+
+    Snake(int id, int cols) {
+        this.id = id;
+        this.cols = cols;
+    }
+
+    /** Identifier of this snake in its world's occupancy grid; always positive. */
+    public int id() { return id; }
+    public boolean alive() { return alive; }
+    public int score() { return score; }
+    public void score(int score) { this.score = score; }
+    public int length() { return length; }
+    public Direction direction() { return direction; }
+    public Direction pendingDirection() { return pending; }
+
+    /** Caller data carried along with the snake, e.g. the player that owns it. */
+    @SuppressWarnings("unchecked")
+    public <T> T attachment() { return (T) attachment; }
+    public void attach(Object attachment) { this.attachment = attachment; }
+
+    /** Cell index of the i-th segment, 0 being the head. */
+    public int cell(int i) { return ring[(head + i) & (ring.length - 1)]; }
+    public int x(int i) { return cell(i) % cols; }
+    public int y(int i) { return cell(i) / cols; }
+    public int headX() { return x(0); }
+    public int headY() { return y(0); }
+    public int tailCell() { return cell(length - 1); }
+
+    /**
+     * Requests a turn for the next step. Reversing onto the neck is ignored.
+     *
+     * @return true if the turn was accepted
+     */
+    public boolean steer(Direction next) {
+        if (next == null || next.isOpposite(direction)) {
+            return false;
+        }
+        pending = next;
+        return true;
+    }
+
+    /** Consumes the requested turn and returns the direction of this step. */
+    Direction advanceDirection() {
+        if (pending != null) {
+            direction = pending;
+            pending = null;
+        }
+        return direction;
+    }
+
+    void reset(Direction direction) {
+        this.direction = direction;
+        this.pending = null;
+        this.head = 0;
+        this.length = 0;
+        this.alive = true;
+    }
+
+    void kill() {
+        alive = false;
+        pending = null;
+        length = 0;
+    }
+
+    void pushHead(int cell) {
+        if (length == ring.length) {
+            grow();
+        }
+        head = (head - 1) & (ring.length - 1);
+        ring[head] = cell;
+        length++;
+    }
+
+    void appendTail(int cell) {
+        if (length == ring.length) {
+            grow();
+        }
+        ring[(head + length) & (ring.length - 1)] = cell;
+        length++;
+    }
+
+    int popTail() {
+        int cell = tailCell();
+        length--;
+        return cell;
+    }
+
+    private void grow() {
+        int[] next = new int[ring.length * 2];
+        for (int i = 0; i < length; i++) {
+            next[i] = cell(i);
+        }
+        ring = next;
+        head = 0;
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.snake.engine;
+
+/** Callbacks fired by {@link World#step()} while snakes move. */
+public interface StepListener {
+    StepListener NONE = new StepListener() { };
+
+    /** The snake's head moved onto food at the given cell; its score is already updated. */
+    default void onEat(Snake snake, int x, int y) { }
+
+    /**
+     * The snake died. {@code killer} is the snake it ran into (possibly itself), or null when it
+     * left the board.
+     */
+    default void onDeath(Snake snake, Snake killer) { }
+}
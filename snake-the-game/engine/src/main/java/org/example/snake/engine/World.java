@@ -0,0 +1,322 @@
+package org.example.snake.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Grid world shared by the desktop game, the server and headless simulations. Occupancy is a
+ * flat {@code int[]} holding {@link #EMPTY}, {@link #FOOD} or the id of the snake on a cell, so
+ * collision checks, food lookups and path searches are array reads; food is additionally kept in
+ * a dense list for iteration and O(1) removal.
+ *
+ * <p>Rules per {@link #step()}: snakes move one at a time in the order they were added. Leaving
+ * the board kills the snake. Running into a body kills the mover and, if it is another snake,
+ * that snake too. Moving onto the cell your own tail is leaving is allowed. Eating food grows the
+ * snake by one and adds {@link #foodScore(int) foodScore} points.
+ */
+public final class World {
+    public static final int EMPTY = 0;
+    public static final int FOOD = -1;
+
+    private static final int RANDOM_SPAWN_ATTEMPTS = 64;
+    private static final int RANDOM_FOOD_ATTEMPTS = 32;
+
+    private final int cols;
+    private final int rows;
+    private final int[] grid;
+    private final int[] foodCells;
+    private final int[] foodSlot;
+    private final Rng rng;
+    private final List<Snake> snakes = new ArrayList<>();
+    private final List<Snake> snakesView = Collections.unmodifiableList(snakes);
+    private Snake[] byId = new Snake[8];
+    private StepListener listener = StepListener.NONE;
+    private int foodCount;
+    private int snakeCells;
+    private int foodTarget = 1;
+    private int foodScore = 10;
+    private long tick;
+
+    public World(int cols, int rows, Rng rng) {
+        if (cols <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("World must be at least 1x1: " + cols + "x" + rows);
+        }
+        this.cols = cols;
+        this.rows = rows;
+        this.rng = rng;
+        int size = cols * rows;
+        this.grid = new int[size];
+        this.foodCells = new int[size];
+        this.foodSlot = new int[size];
+        Arrays.fill(foodSlot, -1);
+    }
+
+    public int cols() { return cols; }
+    public int rows() { return rows; }
+    public long tick() { return tick; }
+    public Rng rng() { return rng; }
+
+    public void listener(StepListener listener) {
+        this.listener = listener != null ? listener : StepListener.NONE;
+    }
+
+    /** Number of food items {@link #ensureFood()} keeps on the board. */
+    public void foodTarget(int target) { this.foodTarget = Math.max(0, target); }
+    public int foodTarget() { return foodTarget; }
+    public void foodScore(int score) { this.foodScore = score; }
+
+    public Snake addSnake() {
+        int id = 1;
+        while (id < byId.length && byId[id] != null) {
+            id++;
+        }
+        if (id == byId.length) {
+            byId = Arrays.copyOf(byId, byId.length * 2);
+        }
+        Snake snake = new Snake(id, cols);
+        byId[id] = snake;
+        snakes.add(snake);
+        return snake;
+    }
+
+    public void removeSnake(Snake snake) {
+        if (snake == null || byId[snake.id()] != snake) {
+            return;
+        }
+        clearBody(snake);
+        snake.kill();
+        byId[snake.id()] = null;
+        snakes.remove(snake);
+    }
+
+    /** Snakes in step order; the list is a read-only view. */
+    public List<Snake> snakes() {
+        return snakesView;
+    }
+
+    /**
+     * Starts a new game: removes all food and bodies and resets the tick and scores; registered
+     * snakes stay, dead. Respawning with {@link #spawn} alone keeps a snake's score.
+     */
+    public void clear() {
+        Arrays.fill(grid, EMPTY);
+        for (int i = 0; i < foodCount; i++) {
+            foodSlot[foodCells[i]] = -1;
+        }
+        foodCount = 0;
+        snakeCells = 0;
+        tick = 0;
+        for (Snake snake : snakes) {
+            snake.kill();
+            snake.score(0);
+        }
+    }
+
+    /**
+     * Places a snake with its head at (x, y) and the body trailing away from {@code direction}.
+     *
+     * @return false, leaving the snake untouched, if any body cell is off the board or not empty
+     */
+    public boolean spawn(Snake snake, int x, int y, Direction direction, int length) {
+        length = Math.max(1, length);
+        for (int i = 0; i < length; i++) {
+            int bx = x - direction.dx() * i;
+            int by = y - direction.dy() * i;
+            if (!inBounds(bx, by) || grid[by * cols + bx] != EMPTY) {
+                return false;
+            }
+        }
+        clearBody(snake);
+        snake.reset(direction);
+        for (int i = 0; i < length; i++) {
+            int cell = (y - direction.dy() * i) * cols + (x - direction.dx() * i);
+            snake.appendTail(cell);
+            grid[cell] = snake.id();
+        }
+        snakeCells += length;
+        return true;
+    }
+
+    /**
+     * Spawns the snake at a random free spot at least {@code margin} cells from the edges,
+     * facing a random direction.
+     *
+     * @return false if no free spot was found; the caller may retry on a later tick
+     */
+    public boolean spawnRandom(Snake snake, int length, int margin) {
+        int spanX = cols - 2 * margin;
+        int spanY = rows - 2 * margin;
+        if (spanX <= 0 || spanY <= 0) {
+            margin = 0;
+            spanX = cols;
+            spanY = rows;
+        }
+        Direction[] dirs = Direction.all();
+        for (int attempt = 0; attempt < RANDOM_SPAWN_ATTEMPTS; attempt++) {
+            int x = margin + rng.nextInt(spanX);
+            int y = margin + rng.nextInt(spanY);
+            if (spawn(snake, x, y, dirs[rng.nextInt(dirs.length)], length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Advances every living snake by one cell. */
+    public void step() {
+        tick++;
+        for (int i = 0; i < snakes.size(); i++) {
+            Snake snake = snakes.get(i);
+            if (snake.alive()) {
+                move(snake);
+            }
+        }
+    }
+
+    private void move(Snake snake) {
+        Direction dir = snake.advanceDirection();
+        int nx = snake.headX() + dir.dx();
+        int ny = snake.headY() + dir.dy();
+        if (!inBounds(nx, ny)) {
+            die(snake, null);
+            return;
+        }
+        int cell = ny * cols + nx;
+        int occupant = grid[cell];
+        if (occupant > 0 && !(occupant == snake.id() && cell == snake.tailCell())) {
+            Snake hit = byId[occupant];
+            die(snake, hit);
+            if (hit != snake) {
+                die(hit, snake);
+            }
+            return;
+        }
+        boolean eats = occupant == FOOD;
+        if (eats) {
+            removeFood(cell);
+            snake.score(snake.score() + foodScore);
+            snakeCells++;
+        } else {
+            int tail = snake.popTail();
+            grid[tail] = EMPTY;
+        }
+        snake.pushHead(cell);
+        grid[cell] = snake.id();
+        if (eats) {
+            listener.onEat(snake, nx, ny);
+        }
+    }
+
+    private void die(Snake snake, Snake killer) {
+        if (!snake.alive()) {
+            return;
+        }
+        clearBody(snake);
+        snake.kill();
+        listener.onDeath(snake, killer);
+    }
+
+    private void clearBody(Snake snake) {
+        if (!snake.alive()) {
+            return;
+        }
+        for (int i = 0; i < snake.length(); i++) {
+            grid[snake.cell(i)] = EMPTY;
+        }
+        snakeCells -= snake.length();
+    }
+
+    /**
+     * Tops food up to {@link #foodTarget()}. Random probing is bounded; when it keeps hitting
+     * occupied cells the board is scanned from a random offset instead, so a nearly full board
+     * still gets its food and a full one simply gets none.
+     */
+    public void ensureFood() {
+        while (foodCount < foodTarget) {
+            int cell = randomFreeCell();
+            if (cell < 0) {
+                return;
+            }
+            putFood(cell);
+        }
+    }
+
+    /** Returns a random empty cell, or -1 if the board is full. */
+    public int randomFreeCell() {
+        int size = grid.length;
+        if (freeCells() <= 0) {
+            return -1;
+        }
+        for (int attempt = 0; attempt < RANDOM_FOOD_ATTEMPTS; attempt++) {
+            int cell = rng.nextInt(size);
+            if (grid[cell] == EMPTY) {
+                return cell;
+            }
+        }
+        int start = rng.nextInt(size);
+        for (int i = 0; i < size; i++) {
+            int cell = start + i < size ? start + i : start + i - size;
+            if (grid[cell] == EMPTY) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    /** @return false if the cell is off the board or not empty */
+    public boolean addFood(int x, int y) {
+        if (!inBounds(x, y) || grid[y * cols + x] != EMPTY) {
+            return false;
+        }
+        putFood(y * cols + x);
+        return true;
+    }
+
+    private void putFood(int cell) {
+        grid[cell] = FOOD;
+        foodSlot[cell] = foodCount;
+        foodCells[foodCount++] = cell;
+    }
+
+    private void removeFood(int cell) {
+        int slot = foodSlot[cell];
+        int last = foodCells[--foodCount];
+        foodCells[slot] = last;
+        foodSlot[last] = slot;
+        foodSlot[cell] = -1;
+        grid[cell] = EMPTY;
+    }
+
+    public int foodCount() { return foodCount; }
+    public int foodCell(int i) { return foodCells[i]; }
+    public int foodX(int i) { return foodCells[i] % cols; }
+    public int foodY(int i) { return foodCells[i] / cols; }
+
+    public int freeCells() {
+        return grid.length - snakeCells - foodCount;
+    }
+
+    public int index(int x, int y) {
+        return y * cols + x;
+    }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < cols && y < rows;
+    }
+
+    /** {@link #EMPTY}, {@link #FOOD} or the id of the snake on the cell. */
+    public int occupant(int cell) {
+        return grid[cell];
+    }
+
+    public boolean isFood(int cell) {
+        return cell >= 0 && cell < grid.length && grid[cell] == FOOD;
+    }
+
+    /** True for cells off the board or covered by a snake. */
+    public boolean isBlocked(int x, int y) {
+        return !inBounds(x, y) || grid[y * cols + x] > 0;
+    }
+}
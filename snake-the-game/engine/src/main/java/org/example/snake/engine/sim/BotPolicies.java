@@ -0,0 +1,95 @@
+package org.example.snake.engine.sim;
+
+import java.util.List;
+import org.example.snake.engine.Direction;
+import org.example.snake.engine.PathFinder;
+import org.example.snake.engine.Snake;
+import org.example.snake.engine.World;
+
+/** Built-in {@link BotPolicy} implementations, selectable by name. */
+public final class BotPolicies {
+    public static final List<String> NAMES = List.of("random", "greedy", "bfs");
+
+    private BotPolicies() {}
+
+    /**
+     * Creates a policy bound to {@code world}.
+     *
+     * @throws IllegalArgumentException for an unknown name
+     */
+    public static BotPolicy create(String name, World world) {
+        return switch (name) {
+            case "random" -> BotPolicies::randomSafe;
+            case "greedy" -> BotPolicies::greedy;
+            case "bfs" -> pathFinding(world, world.cols() * world.rows());
+            default -> throw new IllegalArgumentException("Unknown bot policy '" + name + "', expected one of " + NAMES);
+        };
+    }
+
+    /** Any direction that does not hit something on the next step, picked at random. */
+    public static Direction randomSafe(World world, Snake snake) {
+        Direction[] dirs = Direction.all();
+        int start = world.rng().nextInt(dirs.length);
+        for (int i = 0; i < dirs.length; i++) {
+            Direction d = dirs[(start + i) % dirs.length];
+            if (isSafe(world, snake, d)) {
+                return d;
+            }
+        }
+        return null;
+    }
+
+    /** The safe direction that most reduces the Manhattan distance to the closest food. */
+    public static Direction greedy(World world, Snake snake) {
+        int hx = snake.headX();
+        int hy = snake.headY();
+        int target = -1;
+        int best = Integer.MAX_VALUE;
+        for (int i = 0; i < world.foodCount(); i++) {
+            int dist = Math.abs(world.foodX(i) - hx) + Math.abs(world.foodY(i) - hy);
+            if (dist < best) {
+                best = dist;
+                target = i;
+            }
+        }
+        Direction choice = null;
+        int choiceDist = Integer.MAX_VALUE;
+        for (Direction d : Direction.all()) {
+            if (!isSafe(world, snake, d)) continue;
+            int dist = target < 0 ? 0
+                    : Math.abs(world.foodX(target) - hx - d.dx()) + Math.abs(world.foodY(target) - hy - d.dy());
+            if (dist < choiceDist) {
+                choiceDist = dist;
+                choice = d;
+            }
+        }
+        return choice;
+    }
+
+    /** Follows the shortest path to the nearest food each tick, falling back to {@link #greedy}. */
+    public static BotPolicy pathFinding(World world, int maxNodes) {
+        PathFinder finder = new PathFinder(world);
+        int[] path = new int[world.cols() * world.rows()];
+        return (w, snake) -> {
+            int hx = snake.headX();
+            int hy = snake.headY();
+            if (finder.plan(hx, hy, maxNodes, path) > 0) {
+                return Direction.fromDelta(path[0] % w.cols() - hx, path[0] / w.cols() - hy);
+            }
+            return greedy(w, snake);
+        };
+    }
+
+    private static boolean isSafe(World world, Snake snake, Direction d) {
+        if (d.isOpposite(snake.direction())) {
+            return false;
+        }
+        int nx = snake.headX() + d.dx();
+        int ny = snake.headY() + d.dy();
+        if (!world.inBounds(nx, ny)) {
+            return false;
+        }
+        int cell = world.index(nx, ny);
+        return world.occupant(cell) <= 0 || cell == snake.tailCell();
+    }
+}
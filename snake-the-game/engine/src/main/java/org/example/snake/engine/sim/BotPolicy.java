@@ -0,0 +1,15 @@
+package org.example.snake.engine.sim;
+
+import org.example.snake.engine.Direction;
+import org.example.snake.engine.Snake;
+import org.example.snake.engine.World;
+
+/**
+ * Chooses a snake's next turn before each world step. An instance belongs to one world and is
+ * only called from the thread that steps it, so it may keep reusable scratch state.
+ */
+@FunctionalInterface
+public interface BotPolicy {
+    /** @return the direction to steer, or null to keep going straight */
+    Direction next(World world, Snake snake);
+}
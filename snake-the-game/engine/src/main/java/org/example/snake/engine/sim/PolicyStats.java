@@ -0,0 +1,76 @@
+package org.example.snake.engine.sim;
+
+import java.util.Arrays;
+
+/**
+ * Score and survival distribution of one policy. Values are kept as exact histograms so
+ * per-thread instances merge without storing individual results, whatever the game count.
+ */
+final class PolicyStats {
+    private long snakes;
+    private long scoreSum;
+    private long survivalSum;
+    private long timeouts;
+    private long[] scores = new long[64];
+    private long[] survival = new long[256];
+
+    void add(int score, int survivalTicks, boolean timedOut) {
+        snakes++;
+        scoreSum += score;
+        survivalSum += survivalTicks;
+        if (timedOut) timeouts++;
+        scores = increment(scores, score);
+        survival = increment(survival, survivalTicks);
+    }
+
+    void merge(PolicyStats other) {
+        snakes += other.snakes;
+        scoreSum += other.scoreSum;
+        survivalSum += other.survivalSum;
+        timeouts += other.timeouts;
+        scores = mergeInto(scores, other.scores);
+        survival = mergeInto(survival, other.survival);
+    }
+
+    long snakes() { return snakes; }
+    long timeouts() { return timeouts; }
+    double meanScore() { return snakes == 0 ? 0 : (double) scoreSum / snakes; }
+    double meanSurvival() { return snakes == 0 ? 0 : (double) survivalSum / snakes; }
+    int scorePercentile(double q) { return percentile(scores, q); }
+    int survivalPercentile(double q) { return percentile(survival, q); }
+    int maxScore() { return percentile(scores, 1.0); }
+
+    private int percentile(long[] histogram, double q) {
+        if (snakes == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * snakes));
+        long seen = 0;
+        for (int v = 0; v < histogram.length; v++) {
+            seen += histogram[v];
+            if (seen >= rank) {
+                return v;
+            }
+        }
+        return histogram.length - 1;
+    }
+
+    private static long[] increment(long[] histogram, int value) {
+        value = Math.max(0, value);
+        if (value >= histogram.length) {
+            histogram = Arrays.copyOf(histogram, Math.max(value + 1, histogram.length * 2));
+        }
+        histogram[value]++;
+        return histogram;
+    }
+
+    private static long[] mergeInto(long[] into, long[] from) {
+        if (from.length > into.length) {
+            into = Arrays.copyOf(into, from.length);
+        }
+        for (int i = 0; i < from.length; i++) {
+            into[i] += from[i];
+        }
+        return into;
+    }
+}
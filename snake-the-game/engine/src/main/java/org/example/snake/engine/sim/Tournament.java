@@ -0,0 +1,293 @@
+package org.example.snake.engine.sim;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import org.example.snake.engine.Rng;
+import org.example.snake.engine.Snake;
+import org.example.snake.engine.StepListener;
+import org.example.snake.engine.World;
+
+/**
+ * Plays many independent, seeded games between bot policies on all cores and reports score and
+ * survival distributions per policy plus simulation throughput as CSV. Game {@code i} always
+ * uses the same seed for a given base seed, so a run is reproducible regardless of how games are
+ * split across threads.
+ *
+ * <p>Run with {@code mvn -f snake-the-game/engine/pom.xml exec:java -Dexec.args="--games=100000"}.
+ */
+public final class Tournament {
+    private static final String USAGE = """
+            Usage: Tournament [--help] [--option=value ...]
+              --games=N          games to play (10000)
+              --seed=N           base seed (1)
+              --cols=N --rows=N  board size (40x40)
+              --food=N           food kept on the board (10)
+              --snakes=N         snakes per game, assigned to policies round-robin (4)
+              --length=N         initial snake length (4)
+              --max-ticks=N      ticks before a game is stopped (5000)
+              --tick-millis=N    tick length used to report survival in seconds (120)
+              --policies=a,b     any of %s (bfs,greedy,random)
+              --parallelism=N    worker threads (available processors)
+              --out=FILE         CSV output file (stdout)
+            """.formatted(BotPolicies.NAMES);
+
+    private static final String CSV_HEADER = "policy,games,snakes,cols,rows,food,snakes_per_game,max_ticks,tick_millis,"
+            + "mean_score,p50_score,p90_score,p99_score,max_score,"
+            + "mean_survival_ticks,p50_survival_ticks,p90_survival_ticks,mean_survival_seconds,timeouts,"
+            + "games_per_sec,ticks_per_sec";
+
+    public record Config(int games, long seed, int cols, int rows, int foodTarget, int snakes, int initialLength,
+                         int maxTicks, long tickMillis, List<String> policies, int parallelism, Path out) {
+        public Config {
+            if (games <= 0 || cols <= 0 || rows <= 0 || snakes <= 0 || initialLength <= 0 || maxTicks <= 0
+                    || parallelism <= 0 || tickMillis <= 0) {
+                throw new IllegalArgumentException("games, board size, snakes, length, ticks and parallelism must be positive");
+            }
+            if (policies.isEmpty()) {
+                throw new IllegalArgumentException("At least one policy is required");
+            }
+            for (String policy : policies) {
+                if (!BotPolicies.NAMES.contains(policy)) {
+                    throw new IllegalArgumentException("Unknown bot policy '" + policy + "', expected one of " + BotPolicies.NAMES);
+                }
+            }
+            policies = List.copyOf(policies);
+        }
+    }
+
+    private Tournament() {}
+
+    public static void main(String[] args) throws IOException {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.print(USAGE);
+            return;
+        }
+        Config config;
+        try {
+            config = parse(args);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+            return;
+        }
+        Result result = run(config);
+        if (config.out() == null) {
+            PrintStream out = System.out;
+            result.writeCsv(out);
+            out.flush();
+        } else {
+            try (Writer writer = Files.newBufferedWriter(config.out(), StandardCharsets.UTF_8)) {
+                result.writeCsv(writer);
+            }
+        }
+        System.err.printf(Locale.ROOT, "%d games, %d ticks in %.2f s: %.0f games/s, %.0f ticks/s on %d threads%n",
+                result.games, result.ticks, result.elapsedNanos / 1e9,
+                result.gamesPerSecond(), result.ticksPerSecond(), config.parallelism());
+    }
+
+    static Config parse(String[] args) {
+        int games = 10_000;
+        long seed = 1;
+        int cols = 40;
+        int rows = 40;
+        int food = 10;
+        int snakes = 4;
+        int length = 4;
+        int maxTicks = 5_000;
+        long tickMillis = 120;
+        List<String> policies = List.of("bfs", "greedy", "random");
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        Path out = null;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --option=value but got '" + arg + "'");
+            }
+            String key = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            try {
+                switch (key) {
+                    case "games" -> games = Integer.parseInt(value);
+                    case "seed" -> seed = Long.parseLong(value);
+                    case "cols" -> cols = Integer.parseInt(value);
+                    case "rows" -> rows = Integer.parseInt(value);
+                    case "food" -> food = Integer.parseInt(value);
+                    case "snakes" -> snakes = Integer.parseInt(value);
+                    case "length" -> length = Integer.parseInt(value);
+                    case "max-ticks" -> maxTicks = Integer.parseInt(value);
+                    case "tick-millis" -> tickMillis = Long.parseLong(value);
+                    case "policies" -> policies = Arrays.stream(value.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+                    case "parallelism" -> parallelism = Integer.parseInt(value);
+                    case "out" -> out = Path.of(value);
+                    default -> throw new IllegalArgumentException("Unknown option --" + key);
+                }
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Option --" + key + " expects a number but got '" + value + "'");
+            }
+        }
+        return new Config(games, seed, cols, rows, food, snakes, length, maxTicks, tickMillis, policies, parallelism, out);
+    }
+
+    public static Result run(Config config) {
+        ThreadLocal<Arena> arenas = ThreadLocal.withInitial(() -> new Arena(config));
+        int policyCount = config.policies().size();
+        ForkJoinPool pool = new ForkJoinPool(config.parallelism());
+        long start = System.nanoTime();
+        try {
+            Totals totals = pool.submit(() -> IntStream.range(0, config.games())
+                    .parallel()
+                    .collect(() -> new Totals(policyCount),
+                            (t, game) -> arenas.get().play(game, t),
+                            Totals::merge)).get();
+            return new Result(config, totals, System.nanoTime() - start);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tournament interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Tournament failed", ex.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public static final class Result {
+        private final Config config;
+        private final PolicyStats[] stats;
+        private final long games;
+        private final long ticks;
+        private final long elapsedNanos;
+
+        private Result(Config config, Totals totals, long elapsedNanos) {
+            this.config = config;
+            this.stats = totals.stats;
+            this.games = totals.games;
+            this.ticks = totals.ticks;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long games() { return games; }
+        public long ticks() { return ticks; }
+        public double gamesPerSecond() { return games / Math.max(1e-9, elapsedNanos / 1e9); }
+        public double ticksPerSecond() { return ticks / Math.max(1e-9, elapsedNanos / 1e9); }
+
+        /** One row per policy; board settings are repeated so rows from several runs can be concatenated. */
+        public void writeCsv(Appendable out) throws IOException {
+            out.append(CSV_HEADER).append('\n');
+            for (int p = 0; p < stats.length; p++) {
+                PolicyStats s = stats[p];
+                out.append(String.format(Locale.ROOT,
+                        "%s,%d,%d,%d,%d,%d,%d,%d,%d,%.3f,%d,%d,%d,%d,%.3f,%d,%d,%.3f,%d,%.1f,%.1f%n",
+                        config.policies().get(p), games, s.snakes(), config.cols(), config.rows(), config.foodTarget(),
+                        config.snakes(), config.maxTicks(), config.tickMillis(),
+                        s.meanScore(), s.scorePercentile(0.5), s.scorePercentile(0.9), s.scorePercentile(0.99), s.maxScore(),
+                        s.meanSurvival(), s.survivalPercentile(0.5), s.survivalPercentile(0.9),
+                        s.meanSurvival() * config.tickMillis() / 1000.0, s.timeouts(),
+                        gamesPerSecond(), ticksPerSecond()));
+            }
+        }
+    }
+
+    private static final class Totals {
+        private final PolicyStats[] stats;
+        private long games;
+        private long ticks;
+
+        Totals(int policies) {
+            stats = new PolicyStats[policies];
+            for (int i = 0; i < policies; i++) {
+                stats[i] = new PolicyStats();
+            }
+        }
+
+        void merge(Totals other) {
+            for (int i = 0; i < stats.length; i++) {
+                stats[i].merge(other.stats[i]);
+            }
+            games += other.games;
+            ticks += other.ticks;
+        }
+    }
+
+    /** One reusable world per worker thread; only the seed changes between games. */
+    private static final class Arena {
+        private final Config config;
+        private final World world;
+        private final Snake[] snakes;
+        private final BotPolicy[] policies;
+        private final int[] policyOf;
+        private final int[] deathTick;
+
+        Arena(Config config) {
+            this.config = config;
+            this.world = new World(config.cols(), config.rows(), new Rng(0));
+            world.foodTarget(config.foodTarget());
+            int n = config.snakes();
+            this.snakes = new Snake[n];
+            this.policies = new BotPolicy[n];
+            this.policyOf = new int[n];
+            this.deathTick = new int[n];
+            BotPolicy[] byName = new BotPolicy[config.policies().size()];
+            for (int p = 0; p < byName.length; p++) {
+                byName[p] = BotPolicies.create(config.policies().get(p), world);
+            }
+            for (int i = 0; i < n; i++) {
+                snakes[i] = world.addSnake();
+                snakes[i].attach(i);
+                policyOf[i] = i % byName.length;
+                policies[i] = byName[policyOf[i]];
+            }
+            world.listener(new StepListener() {
+                @Override
+                public void onDeath(Snake snake, Snake killer) {
+                    int index = snake.attachment();
+                    deathTick[index] = (int) world.tick();
+                }
+            });
+        }
+
+        void play(int game, Totals into) {
+            world.clear();
+            world.rng().seed(Rng.mix(config.seed() + game));
+            int margin = Math.min(config.cols(), config.rows()) / 8;
+            for (int i = 0; i < snakes.length; i++) {
+                deathTick[i] = world.spawnRandom(snakes[i], config.initialLength(), margin) ? -1 : 0;
+            }
+            world.ensureFood();
+            while (world.tick() < config.maxTicks() && anyAlive()) {
+                for (int i = 0; i < snakes.length; i++) {
+                    Snake snake = snakes[i];
+                    if (snake.alive()) {
+                        snake.steer(policies[i].next(world, snake));
+                    }
+                }
+                world.step();
+                world.ensureFood();
+            }
+            int ticks = (int) world.tick();
+            for (int i = 0; i < snakes.length; i++) {
+                boolean timedOut = deathTick[i] < 0;
+                into.stats[policyOf[i]].add(snakes[i].score(), timedOut ? ticks : deathTick[i], timedOut);
+            }
+            into.games++;
+            into.ticks += ticks;
+        }
+
+        private boolean anyAlive() {
+            for (Snake snake : snakes) {
+                if (snake.alive()) return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.snake.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WorldTest {
+    private World world;
+    private Snake snake;
+
+    @BeforeEach
+    void setUp() {
+        world = new World(20, 10, new Rng(1));
+        world.foodTarget(0);
+        snake = world.addSnake();
+        assertTrue(world.spawn(snake, 5, 5, Direction.RIGHT, 3));
+    }
+
+    @Test
+    void eatingGrowsAndScores() {
+        assertTrue(world.addFood(6, 5));
+        world.step();
+        assertEquals(10, snake.score());
+        assertEquals(4, snake.length());
+        assertEquals(6, snake.headX());
+        assertEquals(0, world.foodCount());
+    }
+
+    @Test
+    void restartStartsFromZero() {
+        world.addFood(6, 5);
+        world.step();
+        assertEquals(10, snake.score());
+
+        world.clear();
+        assertFalse(snake.alive());
+        assertTrue(world.spawn(snake, 5, 5, Direction.RIGHT, 3));
+        world.step();
+        assertEquals(0, snake.score());
+        assertEquals(1, world.tick());
+    }
+
+    @Test
+    void respawnKeepsScore() {
+        world.addFood(6, 5);
+        world.step();
+        snake.steer(Direction.UP);
+        for (int i = 0; i < 10 && snake.alive(); i++) {
+            world.step();
+        }
+        assertFalse(snake.alive(), "snake should hit the top wall");
+
+        assertTrue(world.spawn(snake, 5, 5, Direction.RIGHT, 3));
+        assertEquals(10, snake.score());
+    }
+
+    @Test
+    void reversingOntoTheNeckIsIgnored() {
+        assertFalse(snake.steer(Direction.LEFT));
+        world.step();
+        assertTrue(snake.alive());
+        assertEquals(6, snake.headX());
+    }
+
+    @Test
+    void headOnCollisionKillsBoth() {
+        Snake other = world.addSnake();
+        assertTrue(world.spawn(other, 7, 5, Direction.LEFT, 3));
+        world.step();
+        assertFalse(snake.alive());
+        assertFalse(other.alive());
+        assertEquals(20 * 10, world.freeCells());
+    }
+}
@@ -0,0 +1,170 @@
+package org.example.snake.engine.net;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import org.example.snake.engine.Rng;
+import org.example.snake.engine.Snake;
+import org.example.snake.engine.World;
+import org.example.snake.engine.sim.BotPolicies;
+
+/**
+ * Compares snapshot sizes and CPU cost of plain deflate against {@link SnapshotCodec}'s preset
+ * dictionary, for arenas of several sizes. Snapshots come from greedy bots playing on a server-
+ * sized board and are written in the server's JSON shape, so sizes match what goes on the wire.
+ * Prints CSV with one row per player count.
+ *
+ * <p>Lives with the tests so it stays out of the engine jar. Run with {@code mvn -f
+ * snake-the-game/engine/pom.xml -q test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.example.snake.engine.net.CompressionBenchmark -Dexec.args="--players=50,200,500"}.
+ */
+public final class CompressionBenchmark {
+    private static final String USAGE = """
+            Usage: CompressionBenchmark [--help] [--option=value ...]
+              --players=a,b      arena populations to measure (50,200,500)
+              --snapshots=N      snapshots measured per population (300)
+              --cols=N --rows=N  board size (120x120)
+              --length=N         initial snake length (8)
+              --level=N          deflate level, 1-9 (6)
+              --seed=N           world seed (1)
+            """;
+    private static final String CSV_HEADER = "players,snapshots,level,raw_bytes,deflate_bytes,deflate_us,"
+            + "dict_bytes,dict_us,inflate_us,deflate_ratio,dict_ratio";
+    private static final int WARMUP_SNAPSHOTS = 100;
+
+    private CompressionBenchmark() {}
+
+    public static void main(String[] args) throws DataFormatException {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.print(USAGE);
+            return;
+        }
+        int[] players = {50, 200, 500};
+        int snapshots = 300;
+        int cols = 120;
+        int rows = 120;
+        int length = 8;
+        long seed = 1;
+        int level = 6;
+        try {
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                if (!arg.startsWith("--") || eq < 0) {
+                    throw new IllegalArgumentException("Expected --option=value but got '" + arg + "'");
+                }
+                String key = arg.substring(2, eq);
+                String value = arg.substring(eq + 1);
+                switch (key) {
+                    case "players" -> players = Arrays.stream(value.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+                    case "snapshots" -> snapshots = Integer.parseInt(value);
+                    case "cols" -> cols = Integer.parseInt(value);
+                    case "rows" -> rows = Integer.parseInt(value);
+                    case "length" -> length = Integer.parseInt(value);
+                    case "level" -> level = Integer.parseInt(value);
+                    case "seed" -> seed = Long.parseLong(value);
+                    default -> throw new IllegalArgumentException("Unknown option --" + key);
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+            return;
+        }
+        System.out.println(CSV_HEADER);
+        for (int count : players) {
+            System.out.println(measure(count, snapshots, cols, rows, length, level, seed));
+        }
+    }
+
+    private static String measure(int players, int snapshots, int cols, int rows, int length, int level, long seed)
+            throws DataFormatException {
+        World world = new World(cols, rows, new Rng(seed));
+        world.foodTarget(60);
+        Snake[] snakes = new Snake[players];
+        for (int i = 0; i < players; i++) {
+            snakes[i] = world.addSnake();
+        }
+        SnapshotCodec codec = new SnapshotCodec(level);
+        Deflater plain = new Deflater(level, true);
+        byte[] scratch = new byte[64 * 1024];
+        StringBuilder json = new StringBuilder(64 * 1024);
+
+        long rawBytes = 0, plainBytes = 0, dictBytes = 0;
+        long plainNanos = 0, dictNanos = 0, inflateNanos = 0;
+        for (int s = -WARMUP_SNAPSHOTS; s < snapshots; s++) {
+            step(world, snakes, length);
+            byte[] raw = write(json, world, snakes, s).getBytes(StandardCharsets.UTF_8);
+
+            long t0 = System.nanoTime();
+            plain.reset();
+            plain.setInput(raw);
+            plain.finish();
+            int plainSize = 0;
+            while (!plain.finished()) {
+                if (plainSize == scratch.length) scratch = Arrays.copyOf(scratch, scratch.length * 2);
+                plainSize += plain.deflate(scratch, plainSize, scratch.length - plainSize);
+            }
+            long t1 = System.nanoTime();
+            byte[] packed = codec.compress(raw, 0, raw.length);
+            long t2 = System.nanoTime();
+            int unpacked = codec.decompress(packed, 0, packed.length);
+            long t3 = System.nanoTime();
+            if (unpacked != raw.length) {
+                throw new IllegalStateException("Round trip lost data: " + unpacked + " != " + raw.length);
+            }
+            if (s >= 0) {
+                rawBytes += raw.length;
+                plainBytes += plainSize;
+                dictBytes += packed.length;
+                plainNanos += t1 - t0;
+                dictNanos += t2 - t1;
+                inflateNanos += t3 - t2;
+            }
+        }
+        double n = snapshots;
+        return String.format(Locale.ROOT, "%d,%d,%d,%.0f,%.0f,%.1f,%.0f,%.1f,%.1f,%.3f,%.3f",
+                players, snapshots, level, rawBytes / n, plainBytes / n, plainNanos / n / 1000.0,
+                dictBytes / n, dictNanos / n / 1000.0, inflateNanos / n / 1000.0,
+                plainBytes / (double) rawBytes, dictBytes / (double) rawBytes);
+    }
+
+    private static void step(World world, Snake[] snakes, int length) {
+        for (Snake snake : snakes) {
+            if (!snake.alive()) {
+                world.spawnRandom(snake, length, 4);
+            } else {
+                snake.steer(BotPolicies.greedy(world, snake));
+            }
+        }
+        world.step();
+        world.ensureFood();
+    }
+
+    /** Same field order and shape as the server's state message. */
+    private static String write(StringBuilder out, World world, Snake[] snakes, long tick) {
+        out.setLength(0);
+        out.append("{\"type\":\"state\",\"tick\":").append(tick).append(",\"players\":[");
+        for (int i = 0; i < snakes.length; i++) {
+            Snake snake = snakes[i];
+            if (i > 0) out.append(',');
+            out.append("{\"handle\":").append(i + 1)
+                    .append(",\"alive\":").append(snake.alive())
+                    .append(",\"score\":").append(snake.score())
+                    .append(",\"segments\":[");
+            for (int k = 0; snake.alive() && k < snake.length(); k++) {
+                if (k > 0) out.append(',');
+                out.append("{\"x\":").append(snake.x(k)).append(",\"y\":").append(snake.y(k)).append('}');
+            }
+            out.append("]}");
+        }
+        out.append("],\"foods\":[");
+        for (int i = 0; i < world.foodCount(); i++) {
+            if (i > 0) out.append(',');
+            out.append("{\"x\":").append(world.foodX(i)).append(",\"y\":").append(world.foodY(i)).append('}');
+        }
+        return out.append("]}").toString();
+    }
+}
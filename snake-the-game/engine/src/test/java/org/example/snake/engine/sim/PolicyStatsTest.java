@@ -0,0 +1,51 @@
+package org.example.snake.engine.sim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class PolicyStatsTest {
+    @Test
+    void percentilesAreNearestRank() {
+        PolicyStats stats = new PolicyStats();
+        for (int score = 100; score >= 1; score--) {
+            stats.add(score, score * 10, false);
+        }
+        assertEquals(50, stats.scorePercentile(0.5));
+        assertEquals(90, stats.scorePercentile(0.9));
+        assertEquals(99, stats.scorePercentile(0.99));
+        assertEquals(1, stats.scorePercentile(0.0));
+        assertEquals(100, stats.maxScore());
+        assertEquals(50.5, stats.meanScore(), 1e-9);
+        // Survival runs past the initial histogram size.
+        assertEquals(500, stats.survivalPercentile(0.5));
+        assertEquals(1000, stats.survivalPercentile(1.0));
+    }
+
+    @Test
+    void mergedHalvesMatchOneInstance() {
+        PolicyStats whole = new PolicyStats();
+        PolicyStats low = new PolicyStats();
+        PolicyStats high = new PolicyStats();
+        for (int score = 0; score < 300; score++) {
+            boolean timedOut = score % 7 == 0;
+            whole.add(score, score + 5, timedOut);
+            (score < 40 ? low : high).add(score, score + 5, timedOut);
+        }
+        low.merge(high);
+        assertEquals(whole.snakes(), low.snakes());
+        assertEquals(whole.timeouts(), low.timeouts());
+        assertEquals(whole.meanSurvival(), low.meanSurvival(), 1e-9);
+        for (double q : new double[] {0.1, 0.5, 0.9, 0.99, 1.0}) {
+            assertEquals(whole.scorePercentile(q), low.scorePercentile(q));
+            assertEquals(whole.survivalPercentile(q), low.survivalPercentile(q));
+        }
+    }
+
+    @Test
+    void emptyStatsAreZero() {
+        PolicyStats stats = new PolicyStats();
+        assertEquals(0, stats.scorePercentile(0.5));
+        assertEquals(0.0, stats.meanScore(), 0.0);
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.snake.engine.sim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TournamentTest {
+    private static final String[] SMALL = {
+            "--games=60", "--seed=7", "--cols=20", "--rows=20", "--food=4", "--snakes=3", "--max-ticks=400"
+    };
+
+    @Test
+    void seededRunIsTheSameOnOneThreadAndInThePool() throws IOException {
+        Tournament.Result single = Tournament.run(config("--parallelism=1"));
+        Tournament.Result pooled = Tournament.run(config("--parallelism=4"));
+        assertEquals(60, single.games());
+        assertEquals(single.games(), pooled.games());
+        assertEquals(single.ticks(), pooled.ticks());
+        assertEquals(statsColumns(single), statsColumns(pooled));
+    }
+
+    @Test
+    void csvHasOneRowPerPolicy() throws IOException {
+        List<String> rows = statsColumns(Tournament.run(config("--policies=greedy,random")));
+        assertEquals(3, rows.size());
+        assertTrue(rows.get(1).startsWith("greedy,60,"), rows.get(1));
+        assertTrue(rows.get(2).startsWith("random,60,"), rows.get(2));
+    }
+
+    @Test
+    void parseRejectsBadArguments() {
+        assertThrows(IllegalArgumentException.class, () -> Tournament.parse(new String[] {"--games"}));
+        assertThrows(IllegalArgumentException.class, () -> Tournament.parse(new String[] {"--games=many"}));
+        assertThrows(IllegalArgumentException.class, () -> Tournament.parse(new String[] {"--colour=red"}));
+        assertThrows(IllegalArgumentException.class, () -> Tournament.parse(new String[] {"--policies=nope"}));
+        assertThrows(IllegalArgumentException.class, () -> Tournament.parse(new String[] {"--games=0"}));
+    }
+
+    private static Tournament.Config config(String... extra) {
+        String[] args = new String[SMALL.length + extra.length];
+        System.arraycopy(SMALL, 0, args, 0, SMALL.length);
+        System.arraycopy(extra, 0, args, SMALL.length, extra.length);
+        return Tournament.parse(args);
+    }
+
+    /** The CSV without the two throughput columns, which depend on timing. */
+    private static List<String> statsColumns(Tournament.Result result) throws IOException {
+        StringBuilder csv = new StringBuilder();
+        result.writeCsv(csv);
+        List<String> rows = new ArrayList<>();
+        for (String line : csv.toString().split("\n")) {
+            String row = line.substring(0, line.lastIndexOf(','));
+            rows.add(row.substring(0, row.lastIndexOf(',')));
+        }
+        return rows;
+    }
+}
@@ -3,29 +3,48 @@ package org.example.snake.server.game;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.io.IOException;
+import java.security.SecureRandom;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
-import java.util.HashMap;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import org.example.snake.engine.Direction;
+import org.example.snake.engine.PathFinder;
+import org.example.snake.engine.Rng;
+import org.example.snake.engine.Snake;
+import org.example.snake.engine.StepListener;
+import org.example.snake.engine.World;
+import org.example.snake.engine.net.SnapshotCodec;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,51 +56,180 @@ public class GameService {
     private static final int FOOD_TARGET = 60;
     private static final int INITIAL_SNAKE_LENGTH = 6;
     private static final int RESPAWN_DELAY_TICKS = 15;
+    private static final int SPAWN_MARGIN = 10;
+    /** Client-reported round trips above this are treated as bogus and not recorded. */
+    private static final long MAX_REPORTED_RTT_MILLIS = 60_000;
     private static final List<String> COLORS = List.of(
             "#4CAF50", "#FF7043", "#9575CD", "#26C6DA", "#EC407A",
             "#FFCA28", "#66BB6A", "#8D6E63", "#42A5F5", "#AB47BC"
     );
 
     private final ConcurrentMap<String, PlayerSession> sessions = new ConcurrentHashMap<>();
-    private final Set<Point> foods = ConcurrentHashMap.newKeySet();
+    /** Players whose connection dropped, by resume token, kept in the game until their grace period ends. */
+    private final ConcurrentMap<String, Parked> parked = new ConcurrentHashMap<>();
+    private final SecureRandom tokens = new SecureRandom();
+    /**
+     * Guards the meta channel: {@link #broadcastMeta} and a resume both send under it, so a
+     * resumed session gets its catch-up in one piece, between two ticks' deltas. Parking a player
+     * and handing it to a resuming session also happen under it, so a player is never both.
+     */
+    private final Object metaLock = new Object();
+    /** Recent meta deltas by tick, so a resumed client only gets what it missed. Under {@link #metaLock}. */
+    private final ArrayDeque<LoggedMeta> metaLog = new ArrayDeque<>();
+    /** The player table and leaderboard as of the last {@link #broadcastMeta}. Under {@link #metaLock}. */
+    private String metaTable;
+    private String metaStandings;
+    private long metaTick;
+    private final Queue<PlayerState> departed = new ConcurrentLinkedQueue<>();
     private final ObjectMapper mapper;
     private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    /** Client-reported round trips of all sessions; per-session figures stay in {@link PlayerSession}. */
+    private final Timer rtt;
     private final AtomicLong tickCounter = new AtomicLong();
-    private final Random random = new Random();
     private final AtomicInteger colorIdx = new AtomicInteger();
+    private final List<BotState> bots = new ArrayList<>();
+    private final List<PlayerState> roster = new ArrayList<>();
+    private final List<PlayerState> previousRoster = new ArrayList<>();
+    /** Who is already in {@link #roster} this tick; game loop thread only. */
+    private final Set<PlayerState> listed = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final SnapshotLod lod = new SnapshotLod();
+    private final SnapshotCodec codec = new SnapshotCodec();
+    /** This tick's compressed snapshots by message instance; see {@link #compress}. */
+    private final Map<String, byte[]> compressed = new IdentityHashMap<>();
+    private long rosterVersion;
+    private final List<PlayerMeta> joined = new ArrayList<>();
+    private final List<Rename> renamed = new ArrayList<>();
+    private final List<Integer> left = new ArrayList<>();
+    private final ArrayDeque<Integer> freeHandles = new ArrayDeque<>();
+    private int nextHandle = 1;
+    private List<LeaderboardEntry> lastLeaderboard = List.of();
+    private final AtomicInteger botNames = new AtomicInteger();
+    private final World world;
+    private final PathFinder planner;
+    private int botCursor;
 
     private final int worldCols;
     private final int worldRows;
     private final long tickMillis;
     private final String leaderboardKey;
+    private final int botTargetPopulation;
+    private final long botBudgetNanos;
+    private final int botPlanTicks;
+    private final int sendTimeLimitMillis;
+    private final int sendBufferLimitBytes;
+    private final boolean lodEnabled;
+    private final long resumeGraceMillis;
 
     public GameService(ObjectMapper mapper,
                        StringRedisTemplate redisTemplate,
+                       MeterRegistry meterRegistry,
                        @Value("${game.world.cols:" + DEFAULT_WORLD_COLS + "}") int worldCols,
                        @Value("${game.world.rows:" + DEFAULT_WORLD_ROWS + "}") int worldRows,
                        @Value("${game.tick-millis:120}") long tickMillis,
-                       @Value("${game.redis.leaderboard-key:snake:leaderboard}") String leaderboardKey) {
+                       @Value("${game.redis.leaderboard-key:snake:leaderboard}") String leaderboardKey,
+                       @Value("${game.bots.target-population:8}") int botTargetPopulation,
+                       @Value("${game.bots.budget-micros:2000}") long botBudgetMicros,
+                       @Value("${game.bots.plan-ticks:25}") int botPlanTicks,
+                       @Value("${game.network.send-time-limit-millis:5000}") int sendTimeLimitMillis,
+                       @Value("${game.network.send-buffer-limit-kb:512}") int sendBufferLimitKb,
+                       @Value("${game.network.lod:true}") boolean lodEnabled,
+                       @Value("${game.network.resume-grace-seconds:30}") int resumeGraceSeconds) {
         this.mapper = mapper;
         this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.rtt = Timer.builder("snake.session.rtt")
+                .description("Round-trip times reported by clients")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
         this.worldCols = Math.max(40, worldCols);
         this.worldRows = Math.max(40, worldRows);
         this.tickMillis = Math.max(80, tickMillis);
         this.leaderboardKey = leaderboardKey;
+        this.botTargetPopulation = Math.max(0, botTargetPopulation);
+        this.botBudgetNanos = Math.max(0, botBudgetMicros) * 1_000L;
+        this.botPlanTicks = Math.max(1, botPlanTicks);
+        this.sendTimeLimitMillis = Math.max(1000, sendTimeLimitMillis);
+        this.sendBufferLimitBytes = Math.max(64, sendBufferLimitKb) * 1024;
+        this.lodEnabled = lodEnabled;
+        this.resumeGraceMillis = Math.max(0, resumeGraceSeconds) * 1_000L;
+        this.world = new World(this.worldCols, this.worldRows, new Rng(System.nanoTime()));
+        this.world.foodTarget(FOOD_TARGET);
+        this.world.listener(new StepListener() {
+            @Override
+            public void onEat(Snake snake, int x, int y) {
+                PlayerState player = snake.attachment();
+                recordScore(player.name(), snake.score());
+            }
+
+            @Override
+            public void onDeath(Snake snake, Snake killer) {
+                PlayerState player = snake.attachment();
+                player.respawnAt(tickCounter.get() + RESPAWN_DELAY_TICKS);
+            }
+        });
+        this.planner = new PathFinder(world);
     }
 
+    /**
+     * Sends go through a {@link ConcurrentWebSocketSessionDecorator}: a send that finds another
+     * in flight is queued instead of blocking the game loop, and the queue size and in-flight
+     * time tell the {@link SnapshotPacer} how far behind the client is. A client that stays stuck
+     * past the time or buffer limit is disconnected.
+     */
     public void register(WebSocketSession session) {
         session.setTextMessageSizeLimit(64 * 1024);
-        sessions.put(session.getId(), new PlayerSession(session));
+        ConcurrentWebSocketSessionDecorator concurrent =
+                new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMillis, sendBufferLimitBytes);
+        PlayerSession ps = new PlayerSession(concurrent, new SnapshotPacer(tickMillis));
+        ps.meters(List.of(
+                Gauge.builder("snake.session.snapshot.rate", ps.pacer(), SnapshotPacer::rate)
+                        .tag("session", session.getId())
+                        .description("Snapshots per second currently sent to the session")
+                        .register(meterRegistry),
+                Gauge.builder("snake.session.send.backlog", ps.pacer(), SnapshotPacer::backlogBytes)
+                        .tag("session", session.getId())
+                        .description("Bytes queued for the session when the last snapshot was paced")
+                        .baseUnit("bytes")
+                        .register(meterRegistry)));
+        sessions.put(session.getId(), ps);
     }
 
     public void unregister(WebSocketSession session) {
+        unregister(session, true);
+    }
+
+    /**
+     * Removes the session. Unless the client left on purpose ({@code resumable} false), its player
+     * is parked: the snake stays in the game and the leaderboard keeps the name until the grace
+     * period ends, and a client presenting the player's resume token within that time takes it over.
+     */
+    public void unregister(WebSocketSession session, boolean resumable) {
         PlayerSession removed = sessions.remove(session.getId());
-        if (removed != null && removed.player() != null) {
-            removeFromLeaderboard(removed.player().name());
+        if (removed != null) {
+            removed.meters().forEach(meterRegistry::remove);
+            if (removed.smoothedRtt() >= 0) {
+                log.debug("Session {} closed; last RTT {} ms, smoothed {} ms",
+                        session.getId(), removed.lastRtt(), removed.smoothedRtt());
+            }
+            synchronized (metaLock) {
+                // Null once another session has taken the player over.
+                PlayerState player = removed.player();
+                if (player != null && resumable && resumeGraceMillis > 0) {
+                    parked.put(player.resumeToken(), new Parked(player, System.currentTimeMillis() + resumeGraceMillis));
+                } else if (player != null) {
+                    depart(player);
+                }
+            }
         }
         safeClose(session);
     }
 
+    private void depart(PlayerState player) {
+        departed.add(player);
+        removeFromLeaderboard(player.name());
+    }
+
     public void handleMessage(WebSocketSession session, JsonNode payload) throws IOException {
         PlayerSession ps = sessions.get(session.getId());
         if (ps == null) {
@@ -90,33 +238,83 @@ public class GameService {
         String type = Optional.ofNullable(payload.path("type").asText(null)).orElse("");
         switch (type) {
             case "join" -> handleJoin(ps, payload);
-            case "direction" -> handleDirection(ps, payload.path("direction").asText(""));
-            case "ping" -> sendPong(ps);
+            case "direction" -> handleDirection(ps, payload);
+            case "ping" -> handlePing(ps, payload);
             default -> { }
         }
     }
 
     private void handleJoin(PlayerSession ps, JsonNode payload) throws JsonProcessingException {
+        ps.compressed(SnapshotCodec.NAME.equals(payload.path("compression").asText("")));
         String name = payload.path("name").asText("").trim();
         if (name.isEmpty()) {
             name = "Player";
         }
         if (ps.player() != null) {
             ps.player().name(name);
+            ps.player().markRenamed();
             recordScore(ps.player().name(), ps.player().score());
             return;
         }
+        String token = payload.path("resume").asText("");
+        PlayerSession stale = null;
+        synchronized (metaLock) {
+            Parked resumed = parked.remove(token);
+            PlayerState player = resumed != null ? resumed.player() : null;
+            if (player == null && (stale = liveSession(ps, token)) != null) {
+                player = stale.player();
+            }
+            if (player != null) {
+                player.resumeToken(newToken());
+                ps.player(player);
+                sendWelcome(ps, player);
+                catchUp(ps, payload.path("lastTick").asLong(0));
+                // Bound to the new session first, so the roster never misses the player.
+                if (stale != null) {
+                    stale.player(null);
+                }
+                log.info("Player {} resumed their session", player.name());
+            }
+        }
+        if (stale != null) {
+            unregister(stale.session(), false);
+        }
+        if (ps.player() != null) {
+            return;
+        }
         String id = UUID.randomUUID().toString();
         String color = COLORS.get(Math.floorMod(colorIdx.getAndIncrement(), COLORS.size()));
         PlayerState player = new PlayerState(id, name, color);
-        spawnPlayer(player);
+        player.resumeToken(newToken());
         ps.player(player);
-        ps.pendingDirection(Direction.RIGHT);
-        ps.lastDirection(Direction.RIGHT);
         recordScore(name, 0);
         sendWelcome(ps, player);
     }
 
+    /**
+     * The other session still holding the player with {@code token}: a client often reconnects
+     * before the server has noticed its old connection is gone, so the player is not parked yet.
+     * Call under {@link #metaLock}.
+     */
+    private PlayerSession liveSession(PlayerSession ps, String token) {
+        if (token.isEmpty()) {
+            return null;
+        }
+        for (PlayerSession other : sessions.values()) {
+            if (other != ps && other.player() != null && token.equals(other.player().resumeToken())) {
+                return other;
+            }
+        }
+        return null;
+    }
+
+    /** 128 random bits; also rotated on every resume so a token works only once. */
+    private String newToken() {
+        byte[] bytes = new byte[16];
+        tokens.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
     private void sendWelcome(PlayerSession ps, PlayerState player) throws JsonProcessingException {
         WelcomeMessage welcome = new WelcomeMessage(
                 "welcome",
@@ -124,160 +322,422 @@ public class GameService {
                 player.color(),
                 worldCols,
                 worldRows,
-                tickMillis
+                tickMillis,
+                player.resumeToken()
         );
         send(ps.session(), welcome);
     }
 
-    private void handleDirection(PlayerSession ps, String directionText) {
-        Direction dir = Direction.from(directionText);
-        if (dir == null) {
+    /**
+     * Queues a turn for the game loop. Clients that predate input sequencing send no {@code seq};
+     * their input is numbered here so it still goes through the queue in arrival order.
+     */
+    private void handleDirection(PlayerSession ps, JsonNode payload) {
+        Direction dir = Direction.from(payload.path("direction").asText(""));
+        PlayerState player = ps.player();
+        if (dir == null || player == null) {
             return;
         }
-        Direction lastDir = ps.lastDirection();
-        if (lastDir != null && dir.isOpposite(lastDir)) {
-            return;
+        long seq = payload.path("seq").asLong(0);
+        if (seq <= 0) {
+            seq = ps.nextLegacySeq();
         }
-        ps.pendingDirection(dir);
-    }
-
-    private void sendPong(PlayerSession ps) throws JsonProcessingException {
-        send(ps.session(), Map.of("type", "pong", "now", System.currentTimeMillis()));
+        player.inputs().offer(seq, payload.path("tick").asLong(Long.MAX_VALUE), dir);
+    }
+
+    /**
+     * Answers with the server clock, echoing the client's {@code t} so it can time the round
+     * trip. Clients report their last measured round trip as {@code rtt}, which feeds the
+     * server-wide RTT percentiles and the session's own last and smoothed values.
+     */
+    private void handlePing(PlayerSession ps, JsonNode payload) throws JsonProcessingException {
+        long reported = payload.path("rtt").asLong(-1);
+        if (reported >= 0 && reported <= MAX_REPORTED_RTT_MILLIS) {
+            rtt.record(reported, TimeUnit.MILLISECONDS);
+            ps.recordRtt(reported);
+        }
+        send(ps.session(), Map.of("type", "pong", "now", System.currentTimeMillis(), "t", payload.path("t").asLong(0)));
     }
 
     @Scheduled(fixedRateString = "${game.tick-millis:120}")
     public void gameLoop() {
         long tick = tickCounter.incrementAndGet();
-        ensureFood();
+        expireParked();
+        removeDeparted();
+        balanceBots();
+        collectRoster();
+        world.ensureFood();
         updatePlayers(tick);
         broadcastState(tick);
     }
 
-    private void ensureFood() {
-        while (foods.size() < FOOD_TARGET) {
-            Point candidate = new Point(random.nextInt(worldCols), random.nextInt(worldRows));
-            if (isOccupied(candidate)) {
-                continue;
+    private void expireParked() {
+        long now = System.currentTimeMillis();
+        // Entry-wise removal, so a resume racing with expiry either gets the player or nothing.
+        parked.entrySet().removeIf(e -> {
+            if (e.getValue().expiresAt() > now) {
+                return false;
             }
-            foods.add(candidate);
+            depart(e.getValue().player());
+            return true;
+        });
+    }
+
+    /** Snakes are only added to and removed from the world on the game loop thread. */
+    private void removeDeparted() {
+        PlayerState player;
+        while ((player = departed.poll()) != null) {
+            world.removeSnake(player.snake());
         }
     }
 
-    private boolean isOccupied(Point pt) {
+    private void collectRoster() {
+        roster.clear();
+        listed.clear();
+        // A resumed player is briefly held by both its old and new session; list it once.
         for (PlayerSession ps : sessions.values()) {
-            PlayerState player = ps.player();
-            if (player == null || !player.alive()) continue;
-            if (player.body().contains(pt)) {
-                return true;
+            if (ps.player() != null && listed.add(ps.player())) {
+                roster.add(ps.player());
+            }
+        }
+        for (Parked p : parked.values()) {
+            if (listed.add(p.player())) {
+                roster.add(p.player());
+            }
+        }
+        for (BotState bot : bots) {
+            roster.add(bot.player());
+        }
+        if (!roster.equals(previousRoster)) {
+            rosterVersion++;
+            diffRoster();
+            previousRoster.clear();
+            previousRoster.addAll(roster);
+        }
+        for (PlayerState player : roster) {
+            if (player.takeRenamed()) {
+                renamed.add(new Rename(player.handle(), player.name()));
+            }
+        }
+    }
+
+    /**
+     * Hands new players a numeric handle and queues joined and left events. Handles of departed
+     * players are only reused from the next change on, so one event batch never names a handle
+     * twice.
+     */
+    private void diffRoster() {
+        Set<PlayerState> current = Collections.newSetFromMap(new IdentityHashMap<>());
+        current.addAll(roster);
+        List<Integer> released = new ArrayList<>();
+        for (PlayerState player : previousRoster) {
+            if (!current.contains(player)) {
+                left.add(player.handle());
+                released.add(player.handle());
             }
         }
-        return foods.contains(pt);
+        for (PlayerState player : roster) {
+            if (player.handle() == 0) {
+                Integer free = freeHandles.poll();
+                player.handle(free != null ? free : nextHandle++);
+                joined.add(meta(player));
+            }
+        }
+        freeHandles.addAll(released);
+    }
+
+    private static PlayerMeta meta(PlayerState player) {
+        return new PlayerMeta(player.handle(), player.id(), player.name(), player.color());
     }
 
     private void updatePlayers(long tick) {
-        Map<Point, PlayerState> occupied = new HashMap<>();
-        for (PlayerSession ps : sessions.values()) {
-            PlayerState p = ps.player();
-            if (p == null) continue;
-            if (!p.alive() && tick >= ps.respawnAt()) {
-                spawnPlayer(p);
-                p.alive(true);
-                ps.pendingDirection(Direction.RIGHT);
-                ps.lastDirection(Direction.RIGHT);
+        for (PlayerState player : roster) {
+            Snake snake = player.snake();
+            if (snake == null) {
+                snake = world.addSnake();
+                snake.attach(player);
+                player.snake(snake);
             }
-            if (p.alive()) {
-                for (Point seg : p.body()) {
-                    occupied.put(seg, p);
+            // A parked player's snake stays down until the player is back to steer it.
+            if (!snake.alive() && tick >= player.respawnAt() && !isParked(player)) {
+                // A crowded board may have no room; the spawn is retried next tick.
+                if (world.spawnRandom(snake, INITIAL_SNAKE_LENGTH, SPAWN_MARGIN)) {
+                    player.spawnedAt(tick);
+                }
+            }
+            if (snake.alive()) {
+                // One queued turn per tick; bots never queue any and steer below.
+                Direction turn = player.inputs().poll(snake.direction(), player.spawnedAt());
+                if (turn != null) {
+                    snake.steer(turn);
                 }
             }
         }
+        steerBots(tick);
+        world.step();
+    }
+
+    private boolean isParked(PlayerState player) {
+        String token = player.resumeToken();
+        return token != null && parked.containsKey(token);
+    }
 
+    private void balanceBots() {
+        int humans = parked.size();
         for (PlayerSession ps : sessions.values()) {
-            PlayerState player = ps.player();
-            if (player == null || !player.alive()) {
+            if (ps.player() != null) humans++;
+        }
+        int desired = Math.max(0, botTargetPopulation - humans);
+        while (bots.size() < desired) {
+            String color = COLORS.get(Math.floorMod(colorIdx.getAndIncrement(), COLORS.size()));
+            PlayerState player = new PlayerState(UUID.randomUUID().toString(), "Bot " + botNames.incrementAndGet(), color);
+            bots.add(new BotState(player, new int[worldCols * worldRows]));
+            recordScore(player.name(), 0);
+        }
+        while (bots.size() > desired) {
+            BotState removed = bots.remove(bots.size() - 1);
+            world.removeSnake(removed.player().snake());
+            removeFromLeaderboard(removed.player().name());
+        }
+    }
+
+    /**
+     * Chooses the next direction for every bot. Plans are reused across ticks until they are
+     * invalidated; re-planning stops once the per-tick budget is spent, and bots that missed
+     * out fall back to a greedy safe move and are served first on the next tick.
+     */
+    private void steerBots(long tick) {
+        int count = bots.size();
+        if (count == 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + botBudgetNanos;
+        int starved = -1;
+        for (int k = 0; k < count; k++) {
+            int idx = (botCursor + k) % count;
+            BotState bot = bots.get(idx);
+            Snake snake = bot.player().snake();
+            if (snake == null || !snake.alive()) {
+                bot.invalidate();
                 continue;
             }
-            Direction next = Optional.ofNullable(ps.pendingDirection()).orElse(ps.lastDirection());
-            if (next == null) {
-                next = Direction.RIGHT;
-            }
-            Point head = player.body().peekFirst();
-            Point newHead = head.translate(next.dx(), next.dy());
-            ps.pendingDirection(null);
-            if (!withinBounds(newHead) || collides(player, newHead, occupied)) {
-                kill(player);
-                ps.respawnAt(tick + RESPAWN_DELAY_TICKS);
-                continue;
+            int headX = snake.headX();
+            int headY = snake.headY();
+            if (needsPlan(bot, headX, headY, tick)) {
+                if (System.nanoTime() < deadline) {
+                    bot.pathLength(planner.plan(headX, headY, bot.path().length, bot.path()));
+                    bot.plannedAt(tick);
+                } else {
+                    bot.invalidate();
+                    if (starved < 0) starved = idx;
+                }
             }
-            boolean grew = false;
-            if (foods.remove(newHead)) {
-                player.score(player.score() + 10);
-                recordScore(player.name(), player.score());
-                grew = true;
+            snake.steer(bot.pathLength() > 0 ? stepTowards(headX, headY, bot.nextCell()) : greedyMove(snake, headX, headY));
+        }
+        botCursor = starved >= 0 ? starved : (botCursor + 1) % count;
+    }
+
+    private boolean needsPlan(BotState bot, int headX, int headY, long tick) {
+        if (bot.pathLength() == 0 || tick - bot.plannedAt() > botPlanTicks) {
+            return true;
+        }
+        if (bot.nextCell() == world.index(headX, headY)) {
+            bot.advance();
+        }
+        if (bot.pathLength() == 0 || !world.isFood(bot.targetCell())) {
+            return true;
+        }
+        int next = bot.nextCell();
+        int nx = next % worldCols;
+        int ny = next / worldCols;
+        return Math.abs(nx - headX) + Math.abs(ny - headY) != 1 || world.isBlocked(nx, ny);
+    }
+
+    private Direction stepTowards(int headX, int headY, int cell) {
+        return Direction.fromDelta(cell % worldCols - headX, cell / worldCols - headY);
+    }
+
+    private Direction greedyMove(Snake snake, int headX, int headY) {
+        Direction last = snake.direction();
+        if (!world.isBlocked(headX + last.dx(), headY + last.dy())) {
+            return last;
+        }
+        for (Direction d : Direction.all()) {
+            if (d.isOpposite(last)) continue;
+            if (!world.isBlocked(headX + d.dx(), headY + d.dy())) {
+                return d;
             }
-            player.body().addFirst(newHead);
-            occupied.put(newHead, player);
-            if (!grew) {
-                Point tail = player.body().removeLast();
-                occupied.remove(tail);
+        }
+        return last;
+    }
+
+    /**
+     * Sends the metadata channel ahead of the snapshot: a session seen for the first time gets the
+     * whole player table and leaderboard, every other session only this tick's joined, renamed and
+     * left events, and the leaderboard when it changed. These are never paced away, since later
+     * snapshots refer to the handles they introduce.
+     */
+    private void broadcastMeta(long tick) {
+        List<LeaderboardEntry> leaderboard = fetchLeaderboard();
+        boolean leaderboardChanged = !leaderboard.equals(lastLeaderboard);
+        lastLeaderboard = leaderboard;
+        synchronized (metaLock) {
+            try {
+                String delta = joined.isEmpty() && renamed.isEmpty() && left.isEmpty() ? null
+                        : mapper.writeValueAsString(new MetaMessage("meta", false, joined, renamed, left));
+                logMeta(tick, delta);
+                if (metaTable == null || delta != null) {
+                    metaTable = mapper.writeValueAsString(new MetaMessage("meta", true,
+                            roster.stream().map(GameService::meta).toList(), List.of(), List.of()));
+                }
+                if (metaStandings == null || leaderboardChanged) {
+                    metaStandings = mapper.writeValueAsString(new LeaderboardMessage("leaderboard", leaderboard));
+                }
+                metaTick = tick;
+                for (PlayerSession ps : sessions.values()) {
+                    if (!ps.synced()) {
+                        sendText(ps.session(), metaTable);
+                        sendText(ps.session(), metaStandings);
+                        ps.synced(true);
+                        continue;
+                    }
+                    if (delta != null) {
+                        sendText(ps.session(), delta);
+                    }
+                    if (leaderboardChanged) {
+                        sendText(ps.session(), metaStandings);
+                    }
+                }
+            } catch (JsonProcessingException ex) {
+                log.warn("Failed to serialize player metadata", ex);
+            } finally {
+                joined.clear();
+                renamed.clear();
+                left.clear();
             }
-            ps.lastDirection(next);
         }
     }
 
-    private boolean collides(PlayerState player, Point newHead, Map<Point, PlayerState> occupied) {
-        PlayerState hit = occupied.get(newHead);
-        if (hit == null) {
-            return false;
+    /**
+     * Brings a resumed session's player table up to date with the last broadcast: the deltas
+     * after {@code resumeTick} if the log still has them and the session has had nothing since
+     * it connected, otherwise the whole table. The session may already have been sent a table
+     * before its join was read; a full table again is harmless. Call under {@link #metaLock}, so
+     * no tick's delta can land in between.
+     */
+    private void catchUp(PlayerSession ps, long resumeTick) {
+        if (metaTable == null) {
+            // No tick has run yet; the first broadcast will send the table.
+            return;
         }
-        if (hit == player) {
-            // Allow moving into the tile that will be freed by our tail unless we are growing
-            Point tail = player.body().peekLast();
-            if (tail != null && tail.equals(newHead)) {
-                return false;
+        if (!ps.synced() && canReplay(resumeTick, metaTick)) {
+            for (LoggedMeta logged : metaLog) {
+                if (logged.tick() > resumeTick) {
+                    sendText(ps.session(), logged.json());
+                }
             }
+        } else {
+            sendText(ps.session(), metaTable);
         }
-        kill(hit);
-        return true;
+        sendText(ps.session(), metaStandings);
+        ps.synced(true);
     }
 
-    private void kill(PlayerState player) {
-        player.alive(false);
-        player.body().clear();
+    private void logMeta(long tick, String delta) {
+        if (delta != null) {
+            metaLog.addLast(new LoggedMeta(tick, delta));
+        }
+        long oldest = tick - graceTicks();
+        while (!metaLog.isEmpty() && metaLog.peekFirst().tick() <= oldest) {
+            metaLog.removeFirst();
+        }
     }
 
-    private boolean withinBounds(Point p) {
-        return p.x() >= 0 && p.y() >= 0 && p.x() < worldCols && p.y() < worldRows;
+    /** Whether the log still holds every delta after {@code resumeTick}, i.e. it is within the grace period. */
+    private boolean canReplay(long resumeTick, long tick) {
+        return resumeTick > 0 && resumeTick <= tick && resumeTick > tick - graceTicks();
     }
 
-    private void spawnPlayer(PlayerState player) {
-        Deque<Point> body = player.body();
-        body.clear();
-        int x = random.nextInt(worldCols - 20) + 10;
-        int y = random.nextInt(worldRows - 20) + 10;
-        Direction dir = Direction.values()[random.nextInt(Direction.values().length)];
-        int dx = -dir.dx();
-        int dy = -dir.dy();
-        for (int i = 0; i < INITIAL_SNAKE_LENGTH; i++) {
-            body.addLast(new Point(x + i * dx, y + i * dy));
-        }
-        player.alive(true);
+    private long graceTicks() {
+        return resumeGraceMillis / tickMillis;
     }
 
+    /**
+     * Serializes each snake once, in full and, with LOD on and every few ticks, as a summary,
+     * referring to players by handle only; foods are serialized once too. Each session then gets a message
+     * stitched together by {@link SnapshotLod} for its own position, if its pacer lets this tick
+     * through.
+     */
     private void broadcastState(long tick) {
-        List<PlayerPayload> players = new ArrayList<>();
+        broadcastMeta(tick);
+        try {
+            List<PointPayload> foodPayload = new ArrayList<>(world.foodCount());
+            for (int i = 0; i < world.foodCount(); i++) {
+                foodPayload.add(new PointPayload(world.foodX(i), world.foodY(i)));
+            }
+            lod.begin(tick, roster.size(), rosterVersion,
+                    "{\"type\":\"state\",\"tick\":" + tick + ",\"players\":[",
+                    "],\"foods\":" + mapper.writeValueAsString(foodPayload) + "}");
+            for (int r = 0; r < roster.size(); r++) {
+                PlayerState player = roster.get(r);
+                Snake snake = player.snake();
+                boolean alive = snake != null && snake.alive();
+                List<PointPayload> segments = new ArrayList<>(alive ? snake.length() : 0);
+                for (int i = 0; alive && i < snake.length(); i++) {
+                    segments.add(new PointPayload(snake.x(i), snake.y(i)));
+                }
+                String full = mapper.writeValueAsString(
+                        new PlayerPayload(player.handle(), alive, player.score(), segments));
+                lod.player(r, snake, full);
+                if (lodEnabled && lod.summariesDue()) {
+                    lod.summary(r, segments.isEmpty() ? full : mapper.writeValueAsString(new SummaryPayload(
+                            player.handle(), alive, player.score(), segments.size(),
+                            List.of(segments.get(0), segments.get(segments.size() - 1)), lod.box(r))));
+                }
+            }
+        } catch (JsonProcessingException ex) {
+            log.warn("Failed to serialize snapshot {}", tick, ex);
+            return;
+        }
+        // Length in chars; close enough to bytes for the mostly ASCII payload.
+        int size = lod.everyone().length();
+        compressed.clear();
         for (PlayerSession ps : sessions.values()) {
-            PlayerState player = ps.player();
-            if (player == null) continue;
-            List<PointPayload> segments = player.alive()
-                    ? player.body().stream().map(p -> new PointPayload(p.x(), p.y())).toList()
-                    : List.of();
-            players.add(new PlayerPayload(player.id(), player.name(), player.color(), player.alive(), player.score(), segments));
-        }
-        List<PointPayload> foodPayload = foods.stream().map(p -> new PointPayload(p.x(), p.y())).toList();
-        List<LeaderboardEntry> leaderboard = fetchLeaderboard();
-        Snapshot snapshot = new Snapshot("state", tick, players, foodPayload, leaderboard);
-        sessions.values().forEach(ps -> sendSilently(ps.session(), snapshot));
+            ConcurrentWebSocketSessionDecorator session = ps.session();
+            if (ps.pacer().shouldSend(tick, session.getBufferSize(), session.getTimeSinceSendStarted(), size)) {
+                PlayerState self = ps.player();
+                if (self != null) {
+                    sendAck(ps, self.inputs().acked());
+                }
+                String json = lodEnabled && self != null ? lod.payloadFor(ps.lodView(), self.snake(), tick) : lod.everyone();
+                if (ps.compressed()) {
+                    sendMessage(session, new BinaryMessage(compress(json)));
+                } else {
+                    sendText(session, json);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tells the client which of its turns the game loop has consumed, ahead of the snapshot that
+     * shows them. Sent only when it changes and kept out of the snapshot itself, which would
+     * otherwise differ for every player and have to be compressed once per session.
+     */
+    private void sendAck(PlayerSession ps, long ack) {
+        if (ack != ps.sentAck()) {
+            sendText(ps.session(), "{\"type\":\"ack\",\"seq\":" + ack + "}");
+            ps.sentAck(ack);
+        }
+    }
+
+    /**
+     * Compresses a snapshot for clients that opted in. {@link SnapshotLod} hands out one string
+     * instance per distinct message in a tick, so each is compressed only once however many
+     * sessions get it.
+     */
+    private byte[] compress(String json) {
+        return compressed.computeIfAbsent(json, codec::compress);
     }
 
     private List<LeaderboardEntry> fetchLeaderboard() {
@@ -326,24 +786,18 @@ public class GameService {
         sendText(session, json);
     }
 
-    private void sendSilently(WebSocketSession session, Object payload) {
-        try {
-            send(session, payload);
-        } catch (IOException ignored) {
-            unregister(session);
-        }
+    private void sendText(WebSocketSession session, String payload) {
+        sendMessage(session, new TextMessage(payload));
     }
 
-    private void sendText(WebSocketSession session, String payload) {
+    private void sendMessage(WebSocketSession session, WebSocketMessage<?> message) {
         if (!session.isOpen()) {
             return;
         }
-        synchronized (session) {
-            try {
-                session.sendMessage(new TextMessage(payload));
-            } catch (IOException ex) {
-                unregister(session);
-            }
+        try {
+            session.sendMessage(message);
+        } catch (IOException | SessionLimitExceededException ex) {
+            unregister(session);
         }
     }
 
@@ -354,47 +808,17 @@ public class GameService {
         }
     }
 
-    private record Point(int x, int y) {
-        Point translate(int dx, int dy) {
-            return new Point(x + dx, y + dy);
-        }
-    }
-
-    private enum Direction {
-        UP(0, 1), DOWN(0, -1), LEFT(-1, 0), RIGHT(1, 0);
-
-        private final int dx;
-        private final int dy;
-
-        Direction(int dx, int dy) {
-            this.dx = dx;
-            this.dy = dy;
-        }
-
-        int dx() { return dx; }
-        int dy() { return dy; }
-
-        boolean isOpposite(Direction other) {
-            return dx + other.dx == 0 && dy + other.dy == 0;
-        }
-
-        static Direction from(String value) {
-            if (value == null) return null;
-            try {
-                return Direction.valueOf(value.toUpperCase());
-            } catch (IllegalArgumentException ex) {
-                return null;
-            }
-        }
-    }
-
     private static final class PlayerState {
         private final String id;
         private String name;
         private final String color;
-        private final Deque<Point> body = new ArrayDeque<>();
-        private boolean alive;
-        private int score;
+        private Snake snake;
+        private long respawnAt;
+        private long spawnedAt;
+        private final InputQueue inputs = new InputQueue();
+        private int handle;
+        private volatile boolean renamed;
+        private volatile String resumeToken;
 
         PlayerState(String id, String name, String color) {
             this.id = id;
@@ -406,37 +830,112 @@ public class GameService {
         String name() { return name; }
         void name(String v) { this.name = v; }
         String color() { return color; }
-        Deque<Point> body() { return body; }
-        boolean alive() { return alive; }
-        void alive(boolean v) { this.alive = v; }
-        int score() { return score; }
-        void score(int s) { this.score = s; }
+        Snake snake() { return snake; }
+        void snake(Snake s) { this.snake = s; }
+        int score() { return snake != null ? snake.score() : 0; }
+        long respawnAt() { return respawnAt; }
+        void respawnAt(long t) { this.respawnAt = t; }
+        long spawnedAt() { return spawnedAt; }
+        void spawnedAt(long t) { this.spawnedAt = t; }
+        InputQueue inputs() { return inputs; }
+        int handle() { return handle; }
+        void handle(int h) { this.handle = h; }
+        String resumeToken() { return resumeToken; }
+        void resumeToken(String t) { this.resumeToken = t; }
+        void markRenamed() { this.renamed = true; }
+        boolean takeRenamed() {
+            if (!renamed) return false;
+            renamed = false;
+            return true;
+        }
     }
 
     private static final class PlayerSession {
-        private final WebSocketSession session;
+        private final ConcurrentWebSocketSessionDecorator session;
+        private final SnapshotPacer pacer;
+        private final SnapshotLod.View lodView = new SnapshotLod.View();
+        private List<Meter> meters = List.of();
+        /** Round trips reported by the client, in ms; -1 until the first one. Written on its socket thread. */
+        private volatile long lastRtt = -1;
+        private volatile long smoothedRtt = -1;
         private PlayerState player;
-        private Direction pendingDirection;
-        private Direction lastDirection;
-        private long respawnAt;
+        private boolean compressed;
+        private boolean synced;
+        private long legacySeq;
+        private long sentAck;
 
-        PlayerSession(WebSocketSession session) {
+        PlayerSession(ConcurrentWebSocketSessionDecorator session, SnapshotPacer pacer) {
             this.session = session;
+            this.pacer = pacer;
         }
 
-        WebSocketSession session() { return session; }
+        ConcurrentWebSocketSessionDecorator session() { return session; }
+        SnapshotPacer pacer() { return pacer; }
+        SnapshotLod.View lodView() { return lodView; }
+        long lastRtt() { return lastRtt; }
+        long smoothedRtt() { return smoothedRtt; }
+        /** Smooths like TCP's SRTT, an eighth of each new sample. */
+        void recordRtt(long millis) {
+            lastRtt = millis;
+            smoothedRtt = smoothedRtt < 0 ? millis : smoothedRtt + (millis - smoothedRtt) / 8;
+        }
+        List<Meter> meters() { return meters; }
+        void meters(List<Meter> m) { this.meters = m; }
         PlayerState player() { return player; }
         void player(PlayerState p) { this.player = p; }
-        Direction pendingDirection() { return pendingDirection; }
-        void pendingDirection(Direction d) { this.pendingDirection = d; }
-        Direction lastDirection() { return lastDirection; }
-        void lastDirection(Direction d) { this.lastDirection = d; }
-        long respawnAt() { return respawnAt; }
-        void respawnAt(long t) { this.respawnAt = t; }
+        boolean compressed() { return compressed; }
+        void compressed(boolean c) { this.compressed = c; }
+        boolean synced() { return synced; }
+        void synced(boolean s) { this.synced = s; }
+        long nextLegacySeq() { return ++legacySeq; }
+        long sentAck() { return sentAck; }
+        void sentAck(long a) { this.sentAck = a; }
+    }
+
+    private static final class BotState {
+        private final PlayerState player;
+        private final int[] path;
+        private int pathLength;
+        private int cursor;
+        private long plannedAt;
+
+        BotState(PlayerState player, int[] path) {
+            this.player = player;
+            this.path = path;
+        }
+
+        PlayerState player() { return player; }
+        int[] path() { return path; }
+        int pathLength() { return pathLength; }
+        void pathLength(int length) { this.pathLength = length; this.cursor = 0; }
+        int nextCell() { return path[cursor]; }
+        int targetCell() { return path[pathLength - 1]; }
+        void advance() { if (++cursor >= pathLength) invalidate(); }
+        void invalidate() { pathLength = 0; cursor = 0; }
+        long plannedAt() { return plannedAt; }
+        void plannedAt(long t) { this.plannedAt = t; }
     }
 
-    private record PlayerPayload(String id, String name, String color, boolean alive, int score,
-                                 List<PointPayload> segments) {
+    private record PlayerPayload(int handle, boolean alive, int score, List<PointPayload> segments) {
+    }
+
+    /** A distant snake: head and tail as its segments, plus its real length and bounding box. */
+    private record SummaryPayload(int handle, boolean alive, int score, int length, List<PointPayload> segments,
+                                  int[] box) {
+    }
+
+    private record PlayerMeta(int handle, String id, String name, String color) {
+    }
+
+    private record Rename(int handle, String name) {
+    }
+
+    /** With {@code reset}, {@code joined} is the whole table and replaces what the client had. */
+    private record MetaMessage(String type, boolean reset, List<PlayerMeta> joined, List<Rename> renamed,
+                               List<Integer> left) {
+    }
+
+    private record LeaderboardMessage(String type, List<LeaderboardEntry> entries) {
     }
 
     private record PointPayload(int x, int y) {
@@ -445,10 +944,13 @@ public class GameService {
     private record LeaderboardEntry(String name, int score) {
     }
 
-    private record Snapshot(String type, long tick, List<PlayerPayload> players,
-                            List<PointPayload> foods, List<LeaderboardEntry> leaderboard) {
+    private record WelcomeMessage(String type, String id, String color, int cols, int rows, long tickMillis,
+                                  String resumeToken) {
+    }
+
+    private record Parked(PlayerState player, long expiresAt) {
     }
 
-    private record WelcomeMessage(String type, String id, String color, int cols, int rows, long tickMillis) {
+    private record LoggedMeta(long tick, String json) {
     }
 }
@@ -0,0 +1,67 @@
+package org.example.snake.server.game;
+
+import org.example.snake.engine.Direction;
+
+/**
+ * A player's pending turns, in the order they were pressed. The snake can only turn once per
+ * tick, so a quick up-then-left within one tick used to lose the first key; here each turn waits
+ * for its own tick. Every input carries a client sequence number, and the last one consumed is
+ * acked back in snapshots so the client knows which of its predicted turns the server has seen.
+ * Filled from the WebSocket thread and drained on the game loop.
+ */
+final class InputQueue {
+    /** About half a second of turns at the default tick; anything beyond is key mashing. */
+    static final int CAPACITY = 4;
+
+    private final long[] seqs = new long[CAPACITY];
+    private final long[] ticks = new long[CAPACITY];
+    private final Direction[] directions = new Direction[CAPACITY];
+    private int head;
+    private int size;
+    private long received;
+    private long acked;
+
+    /**
+     * Queues a turn the client sent at its snapshot tick {@code clientTick}. Repeated or
+     * out-of-order sequence numbers are ignored, and so is input that arrives while the queue
+     * is full; the client's prediction for it then times out.
+     */
+    synchronized boolean offer(long seq, long clientTick, Direction direction) {
+        if (direction == null || seq <= received || size == CAPACITY) {
+            return false;
+        }
+        received = seq;
+        int tail = (head + size) % CAPACITY;
+        seqs[tail] = seq;
+        ticks[tail] = clientTick;
+        directions[tail] = direction;
+        size++;
+        return true;
+    }
+
+    /**
+     * Consumes queued input for this tick and returns the turn to make, or null. Inputs that
+     * would not change {@code heading}, being the same direction or a reversal, are consumed
+     * without using up the tick, and so are inputs the client sent before it could have seen
+     * the snake's current life (client tick before {@code spawnedAt}).
+     */
+    synchronized Direction poll(Direction heading, long spawnedAt) {
+        while (size > 0) {
+            Direction next = directions[head];
+            long tick = ticks[head];
+            acked = seqs[head];
+            directions[head] = null;
+            head = (head + 1) % CAPACITY;
+            size--;
+            if (tick >= spawnedAt && next != heading && !next.isOpposite(heading)) {
+                return next;
+            }
+        }
+        return null;
+    }
+
+    /** Sequence number of the last input consumed, 0 before any. */
+    synchronized long acked() {
+        return acked;
+    }
+}
@@ -0,0 +1,204 @@
+package org.example.snake.server.game;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import org.example.snake.engine.Snake;
+
+/**
+ * Per-recipient level of detail for snapshots. Every snake is serialized once per tick in full,
+ * and every {@link #SUMMARY_TICKS} ticks as a summary: its length, head, tail and bounding box,
+ * enough for the minimap and leaderboard. Each recipient's message is stitched from those
+ * fragments: full bodies for snakes whose bounding box comes within a screen of the recipient's
+ * head, summaries for the rest. The near set is cached per recipient for {@link #REFRESH_TICKS}
+ * ticks and widened by the distance two snakes can close in that time, so a snake never enters
+ * the view as a summary. Between summary ticks the distant snakes are left out altogether and
+ * the message is marked {@code "kept":true}, telling the client to keep the summaries it has;
+ * a recipient whose near set was just recomputed always gets them, so it never keeps a summary
+ * for a snake that has since come near. Dead snakes have no body and are always sent in full, so
+ * a death shows at once wherever it happens. Deciding therefore costs a box test per snake every few
+ * ticks plus a string copy, against bodies that are no longer sent at all. Recipients with the
+ * same near set get the same string instance, so it is stitched, and compressed by the caller,
+ * once per tick. Only used from the game loop thread.
+ */
+final class SnapshotLod {
+    /** Half the near box; the client shows about 30-44 columns and 18-24 rows. */
+    static final int NEAR_COLS = 44;
+    static final int NEAR_ROWS = 26;
+    static final int REFRESH_TICKS = 4;
+    /** Each snake moves one cell per tick, so the gap can shrink by two per tick. */
+    static final int MARGIN = 2 * REFRESH_TICKS;
+    /** Distant snakes are only shown on the minimap, where a few ticks of lag go unnoticed. */
+    static final int SUMMARY_TICKS = 4;
+
+    private int count;
+    private long version;
+    private int[] minX = new int[16];
+    private int[] minY = new int[16];
+    private int[] maxX = new int[16];
+    private int[] maxY = new int[16];
+    private String[] full = new String[16];
+    private String[] summary = new String[16];
+    /** Roster entries without a live snake this tick. */
+    private final BitSet dead = new BitSet();
+    /** A view's near set plus {@link #dead}; what a message is actually stitched from. */
+    private final BitSet sent = new BitSet();
+    private String prefix;
+    private String suffix;
+    private String keptSuffix;
+    private String everyone;
+    private boolean summariesDue;
+    private long summaryVersion = -1;
+    private long summarizedAt;
+    /** This tick's stitched messages by near set; keys are copies, never a view's own set. */
+    private final Map<BitSet, String> stitched = new HashMap<>();
+    /** The same for messages without summaries. */
+    private final Map<BitSet, String> stitchedNear = new HashMap<>();
+    private final StringBuilder out = new StringBuilder(8 * 1024);
+
+    /**
+     * Starts a tick; {@code version} changes whenever roster indices refer to different players.
+     * {@code suffix} must end with the closing brace of the message.
+     */
+    void begin(long tick, int count, long version, String prefix, String suffix) {
+        this.count = count;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.keptSuffix = suffix.substring(0, suffix.length() - 1) + ",\"kept\":true}";
+        this.everyone = null;
+        this.stitched.clear();
+        this.stitchedNear.clear();
+        this.dead.clear();
+        // Summaries stay valid for as long as the indices they were stored under do.
+        summariesDue = version != summaryVersion || tick - summarizedAt >= SUMMARY_TICKS;
+        if (summariesDue) {
+            summaryVersion = version;
+            summarizedAt = tick;
+        }
+        this.version = version;
+        if (full.length < count) {
+            int size = Math.max(count, full.length * 2);
+            minX = new int[size];
+            minY = new int[size];
+            maxX = new int[size];
+            maxY = new int[size];
+            full = new String[size];
+            summary = new String[size];
+        }
+    }
+
+    /** Whether this tick stores new summaries; the caller then passes each to {@link #summary}. */
+    boolean summariesDue() {
+        return summariesDue;
+    }
+
+    /** Records roster entry {@code r}; a dead or missing snake gets an empty box. */
+    void player(int r, Snake snake, String fullJson) {
+        full[r] = fullJson;
+        if (snake == null || !snake.alive() || snake.length() == 0) {
+            minX[r] = minY[r] = Integer.MAX_VALUE;
+            maxX[r] = maxY[r] = Integer.MIN_VALUE;
+            dead.set(r);
+            return;
+        }
+        int x0 = Integer.MAX_VALUE, y0 = Integer.MAX_VALUE, x1 = Integer.MIN_VALUE, y1 = Integer.MIN_VALUE;
+        for (int i = 0; i < snake.length(); i++) {
+            x0 = Math.min(x0, snake.x(i));
+            x1 = Math.max(x1, snake.x(i));
+            y0 = Math.min(y0, snake.y(i));
+            y1 = Math.max(y1, snake.y(i));
+        }
+        minX[r] = x0;
+        minY[r] = y0;
+        maxX[r] = x1;
+        maxY[r] = y1;
+    }
+
+    /** Roster entry {@code r}'s bounding box as min x, min y, max x, max y; set by {@link #player}. */
+    int[] box(int r) {
+        return new int[] {minX[r], minY[r], maxX[r], maxY[r]};
+    }
+
+    /** Stores roster entry {@code r}'s summary; only while {@link #summariesDue()}. */
+    void summary(int r, String summaryJson) {
+        summary[r] = summaryJson;
+    }
+
+    /** The full-detail message, built once per tick on first use. */
+    String everyone() {
+        if (everyone == null) {
+            out.setLength(0);
+            out.append(prefix);
+            for (int r = 0; r < count; r++) {
+                if (r > 0) out.append(',');
+                out.append(full[r]);
+            }
+            everyone = out.append(suffix).toString();
+        }
+        return everyone;
+    }
+
+    /**
+     * The message for a recipient whose own snake is {@code self}. Without a live snake there is
+     * no point of interest and the recipient gets everything.
+     */
+    String payloadFor(View view, Snake self, long tick) {
+        if (self == null || !self.alive()) {
+            return everyone();
+        }
+        boolean refreshed = false;
+        if (view.version != version || tick - view.computedAt >= REFRESH_TICKS) {
+            refresh(view, self.headX(), self.headY(), tick);
+            refreshed = true;
+        }
+        // A dead snake goes out in full from the tick it dies; as a summary, or kept, the
+        // recipient would go on showing it alive until its near set is next refreshed.
+        sent.clear();
+        sent.or(view.near);
+        sent.or(dead);
+        if (sent.cardinality() == count) {
+            return everyone();
+        }
+        boolean summaries = summariesDue || refreshed;
+        Map<BitSet, String> cache = summaries ? stitched : stitchedNear;
+        String message = cache.get(sent);
+        if (message == null) {
+            out.setLength(0);
+            out.append(prefix);
+            boolean first = true;
+            for (int r = 0; r < count; r++) {
+                boolean near = sent.get(r);
+                if (near || summaries) {
+                    if (!first) out.append(',');
+                    out.append(near ? full[r] : summary[r]);
+                    first = false;
+                }
+            }
+            message = out.append(summaries ? suffix : keptSuffix).toString();
+            cache.put((BitSet) sent.clone(), message);
+        }
+        return message;
+    }
+
+    private void refresh(View view, int headX, int headY, long tick) {
+        int left = headX - NEAR_COLS - MARGIN;
+        int right = headX + NEAR_COLS + MARGIN;
+        int bottom = headY - NEAR_ROWS - MARGIN;
+        int top = headY + NEAR_ROWS + MARGIN;
+        view.near.clear();
+        for (int r = 0; r < count; r++) {
+            if (maxX[r] >= left && minX[r] <= right && maxY[r] >= bottom && minY[r] <= top) {
+                view.near.set(r);
+            }
+        }
+        view.version = version;
+        view.computedAt = tick;
+    }
+
+    /** A recipient's cached near set. */
+    static final class View {
+        private final BitSet near = new BitSet();
+        private long version = -1;
+        private long computedAt;
+    }
+}
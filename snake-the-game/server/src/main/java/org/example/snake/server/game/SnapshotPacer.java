@@ -0,0 +1,66 @@
+package org.example.snake.server.game;
+
+/**
+ * Decides, per session and per tick, whether that client gets the snapshot. A client whose
+ * outbound buffer still holds more than one snapshot, or whose current send has been in flight
+ * longer than a tick, is behind: its interval grows by one tick, up to {@link #MAX_INTERVAL}.
+ * After {@link #RECOVER_TICKS} ticks in a row without falling behind, the interval shrinks again.
+ * Skipped ticks are simply not sent; the next send carries that tick's state, so a slow client
+ * sees fewer but never stale snapshots. Only touched from the game loop thread, except the
+ * getters read by metrics.
+ */
+final class SnapshotPacer {
+    static final int MAX_INTERVAL = 3;
+    static final int RECOVER_TICKS = 25;
+
+    private final long tickMillis;
+    private volatile int interval = 1;
+    private volatile int backlogBytes;
+    private int calmTicks;
+    private long lastSentTick = Long.MIN_VALUE / 2;
+
+    SnapshotPacer(long tickMillis) {
+        this.tickMillis = tickMillis;
+    }
+
+    /**
+     * @param backlogBytes  bytes queued for the session but not yet written
+     * @param sendingMillis how long the send currently in flight has been running, 0 if none
+     * @param snapshotBytes size of this tick's snapshot
+     * @return whether to send this tick's snapshot to the session
+     */
+    boolean shouldSend(long tick, int backlogBytes, long sendingMillis, int snapshotBytes) {
+        this.backlogBytes = backlogBytes;
+        boolean behind = backlogBytes > snapshotBytes || sendingMillis > tickMillis;
+        if (behind) {
+            calmTicks = 0;
+            interval = Math.min(MAX_INTERVAL, interval + 1);
+        } else if (interval > 1 && ++calmTicks >= RECOVER_TICKS) {
+            calmTicks = 0;
+            interval--;
+        }
+        // Nothing is queued behind a stuck send; it would only be dropped or sent late.
+        if (behind && backlogBytes > 0) {
+            return false;
+        }
+        if (tick - lastSentTick < interval) {
+            return false;
+        }
+        lastSentTick = tick;
+        return true;
+    }
+
+    /** Ticks between snapshots for this client, 1 when it keeps up. */
+    int interval() {
+        return interval;
+    }
+
+    /** Snapshots per second the client is currently paced at. */
+    double rate() {
+        return 1000.0 / (tickMillis * interval);
+    }
+
+    int backlogBytes() {
+        return backlogBytes;
+    }
+}
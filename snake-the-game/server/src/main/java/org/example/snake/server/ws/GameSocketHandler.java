@@ -33,7 +33,8 @@ public class GameSocketHandler extends TextWebSocketHandler {
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
-        gameService.unregister(session);
+        // A normal closure is the client leaving; anything else may be a dropped connection.
+        gameService.unregister(session, !CloseStatus.NORMAL.equalsCode(status));
     }
 
     @Override
@@ -0,0 +1,86 @@
+package org.example.snake.server.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.example.snake.engine.Direction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class InputQueueTest {
+    private InputQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = new InputQueue();
+    }
+
+    @Test
+    void turnsComeOutOneTickEachInOrder() {
+        assertTrue(queue.offer(1, 10, Direction.UP));
+        assertTrue(queue.offer(2, 10, Direction.LEFT));
+        assertEquals(Direction.UP, queue.poll(Direction.RIGHT, 0));
+        assertEquals(1, queue.acked());
+        assertEquals(Direction.LEFT, queue.poll(Direction.UP, 0));
+        assertEquals(2, queue.acked());
+        assertNull(queue.poll(Direction.LEFT, 0));
+    }
+
+    @Test
+    void repeatedAndOutOfOrderSequenceNumbersAreRejected() {
+        assertTrue(queue.offer(5, 10, Direction.UP));
+        assertFalse(queue.offer(5, 10, Direction.LEFT));
+        assertFalse(queue.offer(3, 10, Direction.LEFT));
+        assertFalse(queue.offer(0, 10, Direction.LEFT));
+        assertTrue(queue.offer(6, 10, Direction.LEFT));
+        assertFalse(queue.offer(7, 10, null));
+
+        assertEquals(Direction.UP, queue.poll(Direction.RIGHT, 0));
+        assertEquals(Direction.LEFT, queue.poll(Direction.UP, 0));
+        assertNull(queue.poll(Direction.LEFT, 0));
+        // Consuming does not reopen old numbers.
+        assertFalse(queue.offer(6, 10, Direction.DOWN));
+    }
+
+    @Test
+    void inputBeyondCapacityIsDropped() {
+        for (int seq = 1; seq <= InputQueue.CAPACITY; seq++) {
+            assertTrue(queue.offer(seq, 10, seq % 2 == 0 ? Direction.LEFT : Direction.UP));
+        }
+        assertFalse(queue.offer(InputQueue.CAPACITY + 1, 10, Direction.DOWN));
+
+        assertEquals(Direction.UP, queue.poll(Direction.RIGHT, 0));
+        // A slot is free again, and the dropped number was never taken.
+        assertTrue(queue.offer(InputQueue.CAPACITY + 1, 10, Direction.DOWN));
+    }
+
+    @Test
+    void noOpAndReversalAreConsumedWithoutUsingTheTick() {
+        queue.offer(1, 10, Direction.RIGHT);
+        queue.offer(2, 10, Direction.LEFT);
+        queue.offer(3, 10, Direction.UP);
+        assertEquals(Direction.UP, queue.poll(Direction.RIGHT, 0));
+        assertEquals(3, queue.acked());
+    }
+
+    @Test
+    void inputFromBeforeTheRespawnIsConsumed() {
+        queue.offer(1, 40, Direction.UP);
+        queue.offer(2, 50, Direction.DOWN);
+        assertEquals(Direction.DOWN, queue.poll(Direction.RIGHT, 50));
+        assertEquals(2, queue.acked());
+    }
+
+    @Test
+    void onlyDiscardedInputStillAdvancesTheAck() {
+        assertEquals(0, queue.acked());
+        queue.offer(1, 10, Direction.RIGHT);
+        queue.offer(2, 10, Direction.LEFT);
+        assertNull(queue.poll(Direction.RIGHT, 0));
+        assertEquals(2, queue.acked());
+        assertNull(queue.poll(Direction.RIGHT, 0));
+        assertEquals(2, queue.acked());
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.snake.server.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.example.snake.engine.Direction;
+import org.example.snake.engine.Rng;
+import org.example.snake.engine.Snake;
+import org.example.snake.engine.World;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SnapshotLodTest {
+    private static final int COLS = 240;
+    private static final int ROWS = 160;
+    private static final int SELF_X = 100;
+    private static final int SELF_Y = 70;
+    /** The last column still inside the near box, right of the recipient's head. */
+    private static final int EDGE = SELF_X + SnapshotLod.NEAR_COLS + SnapshotLod.MARGIN;
+    private static final String PREFIX = "{\"players\":[";
+    private static final String SUFFIX = "]}";
+
+    private SnapshotLod lod;
+    private World world;
+    private Snake self;
+    private Snake other;
+    private SnapshotLod.View view;
+
+    @BeforeEach
+    void setUp() {
+        lod = new SnapshotLod();
+        world = new World(COLS, ROWS, new Rng(1));
+        world.foodTarget(0);
+        self = world.addSnake();
+        other = world.addSnake();
+        assertTrue(world.spawn(self, SELF_X, SELF_Y, Direction.UP, 3));
+        view = new SnapshotLod.View();
+    }
+
+    @Test
+    void snakeTouchingTheMarginIsNear() {
+        // Facing left, the body trails to the right of the head.
+        assertTrue(world.spawn(other, EDGE, SELF_Y, Direction.LEFT, 5));
+        String message = tick(0);
+        assertTrue(message.contains("F1"), message);
+        assertFalse(message.contains("S1"), message);
+    }
+
+    @Test
+    void snakeJustPastTheMarginIsSummarized() {
+        assertTrue(world.spawn(other, EDGE + 1, SELF_Y, Direction.LEFT, 5));
+        String message = tick(0);
+        assertTrue(message.contains("S1"), message);
+        assertFalse(message.contains("F1"), message);
+        assertTrue(message.contains("F0"), "the recipient's own snake is always near");
+    }
+
+    @Test
+    void marginAppliesVerticallyToo() {
+        int edge = SELF_Y + SnapshotLod.NEAR_ROWS + SnapshotLod.MARGIN;
+        assertTrue(world.spawn(other, SELF_X + 20, edge, Direction.DOWN, 5));
+        assertTrue(tick(0).contains("F1"));
+        assertTrue(world.spawn(other, SELF_X + 30, edge + 1, Direction.DOWN, 5));
+        assertTrue(tick(SnapshotLod.REFRESH_TICKS).contains("S1"));
+    }
+
+    @Test
+    void summariesAreSentEverySummaryTicksAndKeptInBetween() {
+        assertTrue(world.spawn(other, EDGE + 10, SELF_Y, Direction.LEFT, 5));
+        assertEquals(PREFIX + "F0,S1" + SUFFIX, tick(0));
+        for (long t = 1; t < SnapshotLod.SUMMARY_TICKS; t++) {
+            assertEquals(PREFIX + "F0" + "],\"kept\":true}", tick(t));
+        }
+        assertEquals(PREFIX + "F0,S1" + SUFFIX, tick(SnapshotLod.SUMMARY_TICKS));
+    }
+
+    @Test
+    void freshlyComputedNearSetAlwaysGetsSummaries() {
+        assertTrue(world.spawn(other, EDGE + 10, SELF_Y, Direction.LEFT, 5));
+        tick(0);
+        // A recipient seen for the first time on an off tick still gets the far snake.
+        SnapshotLod.View late = new SnapshotLod.View();
+        begin(2);
+        assertTrue(lod.payloadFor(late, self, 2).contains("S1"));
+    }
+
+    @Test
+    void nearSetIsKeptForRefreshTicks() {
+        assertTrue(world.spawn(other, EDGE + 1, SELF_Y, Direction.LEFT, 5));
+        assertTrue(tick(0).contains("S1"));
+        // Now within the view, but the margin covers the ticks until the next refresh.
+        assertTrue(world.spawn(other, EDGE - 5, SELF_Y + 1, Direction.LEFT, 5));
+        for (long t = 1; t < SnapshotLod.REFRESH_TICKS; t++) {
+            assertFalse(tick(t).contains("F1"));
+        }
+        assertTrue(tick(SnapshotLod.REFRESH_TICKS).contains("F1"));
+    }
+
+    @Test
+    void farSnakeThatDiesIsSentInFullAtOnce() {
+        World elsewhere = new World(COLS, ROWS, new Rng(2));
+        elsewhere.foodTarget(0);
+        Snake far = elsewhere.addSnake();
+        assertTrue(elsewhere.spawn(far, COLS - 1, SELF_Y, Direction.RIGHT, 5));
+        assertEquals(PREFIX + "F0,S1" + SUFFIX, tick(0, far));
+
+        elsewhere.step();
+        assertFalse(far.alive());
+        // Mid-cadence: neither a summary tick nor a refresh.
+        assertEquals(PREFIX + "F0,F1" + SUFFIX, tick(1, far));
+        assertEquals(PREFIX + "F0,F1" + SUFFIX, tick(2, far));
+    }
+
+    @Test
+    void missingSnakeIsSentInFull() {
+        assertTrue(world.spawn(other, EDGE + 10, SELF_Y, Direction.LEFT, 5));
+        tick(0);
+        begin(1);
+        lod.player(0, self, "F0");
+        lod.player(1, null, "F1");
+        assertEquals(PREFIX + "F0,F1" + SUFFIX, lod.payloadFor(view, self, 1));
+    }
+
+    @Test
+    void recipientsWithTheSameNearSetShareOneMessage() {
+        assertTrue(world.spawn(other, EDGE + 10, SELF_Y, Direction.LEFT, 5));
+        begin(0);
+        record(other);
+        String first = lod.payloadFor(view, self, 0);
+        assertSame(first, lod.payloadFor(new SnapshotLod.View(), self, 0));
+    }
+
+    @Test
+    void deadRecipientGetsEverything() {
+        assertTrue(world.spawn(other, EDGE + 10, SELF_Y, Direction.LEFT, 5));
+        world.clear();
+        begin(0);
+        record(other);
+        assertSame(lod.everyone(), lod.payloadFor(view, self, 0));
+    }
+
+    private String tick(long t) {
+        return tick(t, other);
+    }
+
+    private String tick(long t, Snake second) {
+        begin(t);
+        record(second);
+        return lod.payloadFor(view, self, t);
+    }
+
+    private void begin(long t) {
+        lod.begin(t, 2, 1, PREFIX, SUFFIX);
+    }
+
+    private void record(Snake second) {
+        lod.player(0, self, "F0");
+        lod.player(1, second, "F1");
+        if (lod.summariesDue()) {
+            lod.summary(0, "S0");
+            lod.summary(1, second.alive() ? "S1" : "F1");
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.snake.server.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SnapshotPacerTest {
+    private static final long TICK_MILLIS = 100;
+    private static final int SNAPSHOT = 1000;
+
+    private SnapshotPacer pacer;
+    private long tick;
+
+    @BeforeEach
+    void setUp() {
+        pacer = new SnapshotPacer(TICK_MILLIS);
+        tick = 0;
+    }
+
+    @Test
+    void keepingUpSendsEveryTick() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(calm());
+        }
+        assertEquals(1, pacer.interval());
+        assertEquals(10.0, pacer.rate(), 1e-9);
+    }
+
+    @Test
+    void backlogAboveOneSnapshotStepsTheIntervalUpToTheCap() {
+        assertFalse(behind());
+        assertEquals(2, pacer.interval());
+        assertFalse(behind());
+        assertEquals(3, pacer.interval());
+        assertFalse(behind());
+        assertEquals(SnapshotPacer.MAX_INTERVAL, pacer.interval());
+        assertEquals(2 * SNAPSHOT, pacer.backlogBytes());
+    }
+
+    @Test
+    void backlogOfOneSnapshotIsNotBehind() {
+        assertTrue(pacer.shouldSend(++tick, SNAPSHOT, 0, SNAPSHOT));
+        assertEquals(1, pacer.interval());
+    }
+
+    @Test
+    void slowSendIsBehindEvenWithNothingQueued() {
+        assertTrue(pacer.shouldSend(++tick, 0, TICK_MILLIS + 1, SNAPSHOT));
+        assertEquals(2, pacer.interval());
+    }
+
+    @Test
+    void steppedUpIntervalSkipsTicks() {
+        behind();
+        assertEquals(2, pacer.interval());
+        int sent = 0;
+        for (int i = 0; i < 10; i++) {
+            if (calm()) sent++;
+        }
+        assertEquals(5, sent);
+    }
+
+    @Test
+    void calmTicksStepTheIntervalBackDown() {
+        behind();
+        behind();
+        assertEquals(3, pacer.interval());
+        for (int i = 1; i < SnapshotPacer.RECOVER_TICKS; i++) {
+            calm();
+        }
+        assertEquals(3, pacer.interval());
+        calm();
+        assertEquals(2, pacer.interval());
+        for (int i = 0; i < SnapshotPacer.RECOVER_TICKS; i++) {
+            calm();
+        }
+        assertEquals(1, pacer.interval());
+        for (int i = 0; i < SnapshotPacer.RECOVER_TICKS; i++) {
+            calm();
+        }
+        assertEquals(1, pacer.interval());
+    }
+
+    @Test
+    void fallingBehindRestartsTheCalmCount() {
+        behind();
+        for (int i = 1; i < SnapshotPacer.RECOVER_TICKS; i++) {
+            calm();
+        }
+        behind();
+        assertEquals(3, pacer.interval());
+        for (int i = 1; i < SnapshotPacer.RECOVER_TICKS; i++) {
+            calm();
+        }
+        assertEquals(3, pacer.interval());
+    }
+
+    private boolean calm() {
+        return pacer.shouldSend(++tick, 0, 0, SNAPSHOT);
+    }
+
+    private boolean behind() {
+        return pacer.shouldSend(++tick, 2 * SNAPSHOT, 0, SNAPSHOT);
+    }
+}